@@ -163,3 +163,115 @@ LEFT JOIN branch b ON v.branch_id = b.branch_id
 ORDER BY r.created_at DESC;
 
 
+
+#--------------------Index for rental overlap check-------------------------------
+CREATE INDEX idx_rental_vehicle_dates ON rental (vehicle_id, rental_date, return_date);
+CREATE INDEX idx_rental_status_id ON rental (rental_status, rental_id);
+
+#--------------------Indexes for vehicle search-------------------------------
+CREATE INDEX idx_vehicle_type_brand ON vehicle (vehicle_type, brand);
+CREATE INDEX idx_vehicle_branch_status ON vehicle (branch_id, availability_status);
+CREATE INDEX idx_vehicle_daily_rate ON vehicle (daily_rate);
+CREATE INDEX idx_rental_dates_vehicle ON rental (rental_date, return_date, vehicle_id);
+
+#--------------------Content hash of uploaded payment slips-------------------------------
+ALTER TABLE payment ADD COLUMN slip_sha256 VARCHAR(64);
+
+#--------------------Auto-approval of pending online payments-------------------------------
+# Auto-approval now runs in PaymentAutoApprovalJob; the old MySQL event should be dropped
+CREATE INDEX idx_payment_status_method_created ON payment (payment_status, payment_method, created_at);
+
+#--------------------Idempotency keys for payment/rental creation-------------------------------
+CREATE TABLE idempotency_key (
+    idempotency_key VARCHAR(200) PRIMARY KEY,
+    request_hash CHAR(64),
+    status INT NOT NULL,
+    content_type VARCHAR(255),
+    body LONGTEXT,
+    created_at DATETIME(6),
+    INDEX idx_idempotency_created (created_at)
+);
+
+#--------------------Revenue rollups per day/branch/vehicle type-------------------------------
+CREATE TABLE revenue_rollup (
+    day DATE NOT NULL,
+    branch_id BIGINT NOT NULL,
+    vehicle_type VARCHAR(50) NOT NULL,
+    revenue DOUBLE,
+    payment_count BIGINT,
+    rental_count BIGINT,
+    booked_amount DOUBLE,
+    PRIMARY KEY (day, branch_id, vehicle_type)
+);
+
+# One-off backfill from existing data; afterwards the application maintains the rows incrementally
+INSERT INTO revenue_rollup (day, branch_id, vehicle_type, revenue, payment_count, rental_count, booked_amount)
+SELECT COALESCE(p.payment_date, DATE(p.created_at)), COALESCE(v.branch_id, 0), COALESCE(v.vehicle_type, ''),
+       SUM(COALESCE(p.amount, 0)), COUNT(*), 0, 0
+FROM payment p
+JOIN rental r ON r.rental_id = p.rental_id
+JOIN vehicle v ON v.vehicle_id = r.vehicle_id
+WHERE p.payment_status = 'Paid'
+GROUP BY 1, 2, 3;
+
+INSERT INTO revenue_rollup (day, branch_id, vehicle_type, revenue, payment_count, rental_count, booked_amount)
+SELECT r.rental_date, COALESCE(v.branch_id, 0), COALESCE(v.vehicle_type, ''),
+       0, 0, COUNT(*), SUM(COALESCE(r.total_amount, 0))
+FROM rental r
+JOIN vehicle v ON v.vehicle_id = r.vehicle_id
+WHERE r.rental_status <> 'Cancelled' AND r.rental_date IS NOT NULL
+GROUP BY 1, 2, 3
+ON DUPLICATE KEY UPDATE rental_count = rental_count + VALUES(rental_count),
+                        booked_amount = booked_amount + VALUES(booked_amount);
+
+#--------------------Pooled id generators (replaces IDENTITY for batched inserts)-------------------------------
+# Rows are created / moved past MAX(id) by the application at startup (IdGeneratorAligner)
+CREATE TABLE id_generator (
+    gen_name VARCHAR(255) PRIMARY KEY,
+    next_val BIGINT
+);
+
+#--------------------Unique usernames (signup relies on the constraint instead of a pre-check)-------------------------------
+ALTER TABLE users MODIFY username VARCHAR(255) NOT NULL;
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
+
+#--------------------Rental audit written by the application-------------------------------
+# RentalAuditWriter records status changes with the authenticated user; the trigger would log them twice
+DROP TRIGGER IF EXISTS rental_audit_trigger;
+
+#--------------------Audit history paging (GET /api/rentals/audit)-------------------------------
+CREATE INDEX idx_rental_audit_rental_changed ON rental_audit (rental_id, changed_at);
+CREATE INDEX idx_rental_audit_changed_id ON rental_audit (changed_at, id);
+
+#--------------------Maintenance due scheduler-------------------------------
+CREATE INDEX idx_maintenance_next_service ON maintenance (next_service_date, vehicle_id);
+
+#--------------------Maintenance windows (blocked for bookings like rentals)-------------------------------
+ALTER TABLE maintenance ADD COLUMN maintenance_end_date DATE;
+UPDATE maintenance SET maintenance_end_date = maintenance_date WHERE maintenance_end_date IS NULL;
+CREATE INDEX idx_maintenance_vehicle_dates ON maintenance (vehicle_id, maintenance_date, maintenance_end_date);
+CREATE INDEX idx_maintenance_dates_vehicle ON maintenance (maintenance_date, maintenance_end_date, vehicle_id);
+
+#--------------------Vehicle search date indexes led by the end date-------------------------------
+# A window in the future only has to read bookings ending on or after its start, not all history
+DROP INDEX idx_rental_dates_vehicle ON rental;
+CREATE INDEX idx_rental_return_vehicle ON rental (return_date, rental_date, vehicle_id, rental_status);
+DROP INDEX idx_maintenance_dates_vehicle ON maintenance;
+CREATE INDEX idx_maintenance_end_vehicle ON maintenance (maintenance_end_date, maintenance_date, vehicle_id);
+
+#--------------------CalcRentalAmount (rental days counted like bookings and POST /api/rentals/quotes)-------------------------------
+# [rent_date, return_date] is inclusive: a same-day return is one day, 1st to 3rd is three
+DROP FUNCTION IF EXISTS CalcRentalAmount;
+
+DELIMITER $$
+
+CREATE FUNCTION CalcRentalAmount(p_vehicle_id INT, p_rent_date DATE, p_return_date DATE)
+RETURNS DOUBLE
+READS SQL DATA
+BEGIN
+    DECLARE v_rate DOUBLE;
+    SELECT daily_rate INTO v_rate FROM vehicle WHERE vehicle_id = p_vehicle_id;
+    RETURN v_rate * (DATEDIFF(p_return_date, p_rent_date) + 1);
+END$$
+
+DELIMITER ;
@@ -0,0 +1,19 @@
+package com.vehiclerental.Dto;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+// A date range in which a vehicle cannot be booked: a non-cancelled rental or a maintenance window
+public record BlockedInterval(Long vehicleId, LocalDate startDate, LocalDate endDate, boolean maintenance) {
+
+    // Row of a native [vehicle_id, start, end, is_maintenance] query; drivers differ in the number
+    // and date types they return
+    public static BlockedInterval fromRow(Object[] row) {
+        return new BlockedInterval(((Number) row[0]).longValue(), toLocalDate(row[1]), toLocalDate(row[2]),
+                ((Number) row[3]).intValue() != 0);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date d ? d.toLocalDate() : (LocalDate) value;
+    }
+}
@@ -0,0 +1,4 @@
+package com.vehiclerental.Dto;
+
+// Everything login needs about a user, read in one query (customerId is null for non-customers)
+public record LoginPrincipal(Long userId, String username, String passwordHash, String role, Long customerId) {}
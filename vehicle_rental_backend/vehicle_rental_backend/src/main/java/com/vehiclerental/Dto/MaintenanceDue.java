@@ -0,0 +1,11 @@
+package com.vehiclerental.Dto;
+
+import java.time.LocalDate;
+
+// A vehicle's next scheduled service, as kept by MaintenanceDueScheduler and returned by GET /api/maintenances/due
+public record MaintenanceDue(
+        Long maintenanceId,
+        Long vehicleId,
+        String registrationNo,
+        LocalDate nextServiceDate
+) {}
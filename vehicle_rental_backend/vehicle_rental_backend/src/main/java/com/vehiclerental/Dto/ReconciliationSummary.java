@@ -0,0 +1,35 @@
+package com.vehiclerental.Dto;
+
+import java.util.List;
+
+public class ReconciliationSummary {
+    private final long totalRows;
+    private final long matched;        // flipped to Paid by this import
+    private final long alreadyPaid;
+    private final long unmatched;
+    private final long conflicting;    // amount mismatch, duplicate or ambiguous transaction id
+    private final long invalid;        // unparsable rows
+    private final long durationMillis;
+    private final List<String> issues; // first few unmatched / conflicting / invalid rows
+
+    public ReconciliationSummary(long totalRows, long matched, long alreadyPaid, long unmatched,
+                                 long conflicting, long invalid, long durationMillis, List<String> issues) {
+        this.totalRows = totalRows;
+        this.matched = matched;
+        this.alreadyPaid = alreadyPaid;
+        this.unmatched = unmatched;
+        this.conflicting = conflicting;
+        this.invalid = invalid;
+        this.durationMillis = durationMillis;
+        this.issues = issues;
+    }
+
+    public long getTotalRows() { return totalRows; }
+    public long getMatched() { return matched; }
+    public long getAlreadyPaid() { return alreadyPaid; }
+    public long getUnmatched() { return unmatched; }
+    public long getConflicting() { return conflicting; }
+    public long getInvalid() { return invalid; }
+    public long getDurationMillis() { return durationMillis; }
+    public List<String> getIssues() { return issues; }
+}
@@ -0,0 +1,16 @@
+package com.vehiclerental.Dto;
+
+import java.time.LocalDate;
+
+public class RentalQuoteRequest {
+    private Long vehicleId;
+    private LocalDate rentDate;
+    private LocalDate returnDate;
+
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+    public LocalDate getRentDate() { return rentDate; }
+    public void setRentDate(LocalDate rentDate) { this.rentDate = rentDate; }
+    public LocalDate getReturnDate() { return returnDate; }
+    public void setReturnDate(LocalDate returnDate) { this.returnDate = returnDate; }
+}
@@ -0,0 +1,29 @@
+package com.vehiclerental.Dto;
+
+import java.time.LocalDate;
+
+public class RentalQuoteResponse {
+    private Long vehicleId;
+    private LocalDate rentDate;
+    private LocalDate returnDate;
+    private long days;
+    private Double dailyRate;
+    private Double amount;
+
+    public RentalQuoteResponse(Long vehicleId, LocalDate rentDate, LocalDate returnDate,
+                               long days, Double dailyRate, Double amount) {
+        this.vehicleId = vehicleId;
+        this.rentDate = rentDate;
+        this.returnDate = returnDate;
+        this.days = days;
+        this.dailyRate = dailyRate;
+        this.amount = amount;
+    }
+
+    public Long getVehicleId() { return vehicleId; }
+    public LocalDate getRentDate() { return rentDate; }
+    public LocalDate getReturnDate() { return returnDate; }
+    public long getDays() { return days; }
+    public Double getDailyRate() { return dailyRate; }
+    public Double getAmount() { return amount; }
+}
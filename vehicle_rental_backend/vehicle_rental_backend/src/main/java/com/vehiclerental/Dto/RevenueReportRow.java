@@ -0,0 +1,33 @@
+package com.vehiclerental.Dto;
+
+import java.time.LocalDate;
+
+// One row of GET /api/reports/revenue; dimensions not grouped by are null
+public class RevenueReportRow {
+    private final LocalDate day;
+    private final Long branchId;
+    private final String vehicleType;
+    private final double revenue;
+    private final long paymentCount;
+    private final long rentalCount;
+    private final double bookedAmount;
+
+    public RevenueReportRow(LocalDate day, Long branchId, String vehicleType, double revenue,
+                            long paymentCount, long rentalCount, double bookedAmount) {
+        this.day = day;
+        this.branchId = branchId;
+        this.vehicleType = vehicleType;
+        this.revenue = revenue;
+        this.paymentCount = paymentCount;
+        this.rentalCount = rentalCount;
+        this.bookedAmount = bookedAmount;
+    }
+
+    public LocalDate getDay() { return day; }
+    public Long getBranchId() { return branchId; }
+    public String getVehicleType() { return vehicleType; }
+    public double getRevenue() { return revenue; }
+    public long getPaymentCount() { return paymentCount; }
+    public long getRentalCount() { return rentalCount; }
+    public double getBookedAmount() { return bookedAmount; }
+}
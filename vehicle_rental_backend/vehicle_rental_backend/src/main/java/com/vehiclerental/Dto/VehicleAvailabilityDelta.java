@@ -0,0 +1,11 @@
+package com.vehiclerental.Dto;
+
+import com.vehiclerental.entity.Vehicle;
+
+// One vehicle's status/branch change as pushed on GET /api/vehicles/stream; null status = created or deleted
+public record VehicleAvailabilityDelta(
+        Long vehicleId,
+        Vehicle.AvailabilityStatus oldStatus,
+        Vehicle.AvailabilityStatus newStatus,
+        Long branchId
+) {}
@@ -0,0 +1,47 @@
+package com.vehiclerental.Dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Same JSON shape as a row of vehicle_dashboard_view
+@JsonPropertyOrder({"Type", "Brand", "Model", "Registration", "Daily Rate", "Branch Name", "Status"})
+public class VehicleDashboardRow {
+    private final String type;
+    private final String brand;
+    private final String model;
+    private final String registration;
+    private final Double dailyRate;
+    private final String branchName;
+    private final String status;
+
+    public VehicleDashboardRow(VehicleSnapshot v) {
+        this.type = v.vehicleType();
+        this.brand = v.brand();
+        this.model = v.model();
+        this.registration = v.registrationNo();
+        this.dailyRate = v.dailyRate();
+        this.branchName = v.branchName();
+        this.status = v.availabilityStatus() != null ? v.availabilityStatus().name() : null;
+    }
+
+    @JsonProperty("Type")
+    public String getType() { return type; }
+
+    @JsonProperty("Brand")
+    public String getBrand() { return brand; }
+
+    @JsonProperty("Model")
+    public String getModel() { return model; }
+
+    @JsonProperty("Registration")
+    public String getRegistration() { return registration; }
+
+    @JsonProperty("Daily Rate")
+    public Double getDailyRate() { return dailyRate; }
+
+    @JsonProperty("Branch Name")
+    public String getBranchName() { return branchName; }
+
+    @JsonProperty("Status")
+    public String getStatus() { return status; }
+}
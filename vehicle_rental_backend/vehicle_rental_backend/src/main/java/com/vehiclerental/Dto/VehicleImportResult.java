@@ -0,0 +1,31 @@
+package com.vehiclerental.Dto;
+
+import java.util.List;
+
+public class VehicleImportResult {
+    private final long totalRows;
+    private final long imported;
+    private final long duplicates;
+    private final long failed;
+    private final long durationMillis;
+    private final List<RowError> errors;  // first rows that were not imported
+
+    public record RowError(long row, String registrationNo, String message) {}
+
+    public VehicleImportResult(long totalRows, long imported, long duplicates, long failed,
+                               long durationMillis, List<RowError> errors) {
+        this.totalRows = totalRows;
+        this.imported = imported;
+        this.duplicates = duplicates;
+        this.failed = failed;
+        this.durationMillis = durationMillis;
+        this.errors = errors;
+    }
+
+    public long getTotalRows() { return totalRows; }
+    public long getImported() { return imported; }
+    public long getDuplicates() { return duplicates; }
+    public long getFailed() { return failed; }
+    public long getDurationMillis() { return durationMillis; }
+    public List<RowError> getErrors() { return errors; }
+}
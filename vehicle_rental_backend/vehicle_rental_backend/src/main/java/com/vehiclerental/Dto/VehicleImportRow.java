@@ -0,0 +1,32 @@
+package com.vehiclerental.Dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// One vehicle of a fleet import (CSV row or JSON object)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class VehicleImportRow {
+    private String registrationNo;
+    private String vehicleType;
+    private String brand;
+    private String model;
+    private Double dailyRate;
+    private Long branchId;
+    private String availabilityStatus;    // defaults to Available
+
+    public VehicleImportRow() {}
+
+    public String getRegistrationNo() { return registrationNo; }
+    public void setRegistrationNo(String registrationNo) { this.registrationNo = registrationNo; }
+    public String getVehicleType() { return vehicleType; }
+    public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+    public String getBrand() { return brand; }
+    public void setBrand(String brand) { this.brand = brand; }
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+    public Double getDailyRate() { return dailyRate; }
+    public void setDailyRate(Double dailyRate) { this.dailyRate = dailyRate; }
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+    public String getAvailabilityStatus() { return availabilityStatus; }
+    public void setAvailabilityStatus(String availabilityStatus) { this.availabilityStatus = availabilityStatus; }
+}
@@ -0,0 +1,46 @@
+package com.vehiclerental.Dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Query parameters of GET /api/vehicles/search; every filter is optional
+public class VehicleSearchCriteria {
+    private String vehicleType;
+    private String brand;
+    private Long branchId;
+    private Double minRate;
+    private Double maxRate;
+
+    // Only vehicles with no booking overlapping [freeFrom, freeTo]
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate freeFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate freeTo;
+
+    // dailyRate, brand or vehicleId, optionally suffixed with ",desc"
+    private String sort = "vehicleId";
+    private int page = 0;
+    private int size = 20;
+
+    public String getVehicleType() { return vehicleType; }
+    public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+    public String getBrand() { return brand; }
+    public void setBrand(String brand) { this.brand = brand; }
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+    public Double getMinRate() { return minRate; }
+    public void setMinRate(Double minRate) { this.minRate = minRate; }
+    public Double getMaxRate() { return maxRate; }
+    public void setMaxRate(Double maxRate) { this.maxRate = maxRate; }
+    public LocalDate getFreeFrom() { return freeFrom; }
+    public void setFreeFrom(LocalDate freeFrom) { this.freeFrom = freeFrom; }
+    public LocalDate getFreeTo() { return freeTo; }
+    public void setFreeTo(LocalDate freeTo) { this.freeTo = freeTo; }
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
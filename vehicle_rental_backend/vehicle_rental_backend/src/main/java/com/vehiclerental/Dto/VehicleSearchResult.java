@@ -0,0 +1,22 @@
+package com.vehiclerental.Dto;
+
+import java.util.List;
+
+public class VehicleSearchResult {
+    private final List<VehicleViewDTO> items;
+    private final int total;
+    private final int page;
+    private final int size;
+
+    public VehicleSearchResult(List<VehicleViewDTO> items, int total, int page, int size) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+    }
+
+    public List<VehicleViewDTO> getItems() { return items; }
+    public int getTotal() { return total; }
+    public int getPage() { return page; }
+    public int getSize() { return size; }
+}
@@ -0,0 +1,16 @@
+package com.vehiclerental.Dto;
+
+import com.vehiclerental.entity.Vehicle;
+
+// Flattened vehicle + branch row kept by the in-memory vehicle projection
+public record VehicleSnapshot(
+        Long vehicleId,
+        String vehicleType,
+        String brand,
+        String model,
+        String registrationNo,
+        Double dailyRate,
+        Long branchId,
+        String branchName,
+        Vehicle.AvailabilityStatus availabilityStatus
+) {}
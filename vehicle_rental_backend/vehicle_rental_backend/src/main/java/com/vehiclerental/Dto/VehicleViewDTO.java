@@ -2,6 +2,7 @@ package com.vehiclerental.Dto;
 
 
 public class VehicleViewDTO {
+    private Long vehicleId;
     private String vehicleType;
     private String brand;
     private String model;
@@ -21,8 +22,22 @@ public class VehicleViewDTO {
         this.availabilityStatus = availabilityStatus;
     }
 
+    public VehicleViewDTO(VehicleSnapshot v) {
+        this(v.vehicleType(), v.brand(), v.model(), v.registrationNo(), v.dailyRate(), v.branchName(),
+                v.availabilityStatus() != null ? v.availabilityStatus().name() : null);
+        this.vehicleId = v.vehicleId();
+    }
+
     // getters
 
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+
 
     public String getVehicleType() {
         return vehicleType;
@@ -0,0 +1,47 @@
+package com.vehiclerental.config;
+
+import com.vehiclerental.entity.IdGenerators;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves every id_generator row past the highest id of its table before the
+ * application handles any request. Rows inserted outside Hibernate (seed
+ * scripts, the database's own AUTO_INCREMENT) can then never collide with a
+ * pooled id block.
+ */
+@Component
+public class IdGeneratorAligner implements SmartInitializingSingleton {
+
+    // Generator name -> "table.id_column"
+    private static final Map<String, String> ID_COLUMNS = Map.of(
+            "vehicle", "vehicle.vehicle_id",
+            "staff", "staff.staff_id",
+            "branch", "branch.branch_id",
+            "customer", "customer.customer_id",
+            "payment", "payment.payment_id",
+            "bank_account", "bank_account.account_id");
+
+    private final JdbcTemplate jdbc;
+
+    public IdGeneratorAligner(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ID_COLUMNS.forEach((generator, column) -> {
+            String table = column.substring(0, column.indexOf('.'));
+            String id = column.substring(column.indexOf('.') + 1);
+            // The pooled optimizer hands out (value - allocationSize, value], so stay one block ahead
+            jdbc.update("INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.PK_COLUMN + ", "
+                    + IdGenerators.VALUE_COLUMN + ") SELECT ?, COALESCE(MAX(" + id + "), 0) + ? FROM " + table
+                    + " ON DUPLICATE KEY UPDATE " + IdGenerators.VALUE_COLUMN + " = GREATEST("
+                    + IdGenerators.VALUE_COLUMN + ", VALUES(" + IdGenerators.VALUE_COLUMN + "))",
+                    generator, IdGenerators.ALLOCATION_SIZE + 1);
+        });
+    }
+}
@@ -0,0 +1,227 @@
+package com.vehiclerental.config;
+
+import com.vehiclerental.entity.IdempotencyRecord;
+import com.vehiclerental.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Makes POST /api/payments and POST /api/rentals safe to retry: a request
+ * carrying an Idempotency-Key that already succeeded gets the stored response
+ * back without reaching the controller.
+ *
+ * Keys are scoped to the caller (the authenticated user, else the client IP),
+ * so one caller can never be handed another's stored response. Reusing a key
+ * with a different request body is rejected with 422.
+ *
+ * Runs after the Spring Security chain (default filter order), so the JWT
+ * principal is already in the security context.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    private static final Set<String> PATHS = Set.of("/api/payments", "/api/rentals");
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !PATHS.contains(request.getRequestURI())
+                || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String clientKey = request.getHeader(HEADER).trim();
+        if (clientKey.isEmpty() || clientKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + HEADER);
+            return;
+        }
+        String key = request.getMethod() + " " + request.getRequestURI() + " "
+                + hex(digest().digest((caller(request) + " " + clientKey).getBytes(StandardCharsets.UTF_8)));
+
+        // Multipart parts are parsed and kept by the container; other bodies are buffered for the controller
+        HttpServletRequest target = request;
+        String requestHash;
+        if (isMultipart(request)) {
+            requestHash = hashParts(request);
+        } else {
+            CachedBodyRequest cached = new CachedBodyRequest(request);
+            target = cached;
+            requestHash = hex(digest().digest(cached.body));
+        }
+
+        IdempotencyRecord previous = idempotencyService.find(key);
+        if (previous != null) {
+            if (!requestHash.equals(previous.getRequestHash())) {
+                response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                        HEADER + " was already used with a different request body");
+                return;
+            }
+            replay(previous, response);
+            return;
+        }
+        if (!idempotencyService.begin(key)) {
+            response.sendError(HttpStatus.CONFLICT.value(), "A request with this " + HEADER + " is in progress");
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(target, wrapper);
+            int status = wrapper.getStatus();
+            // Only successful outcomes are remembered; failures may be retried
+            if (status >= 200 && status < 300) {
+                idempotencyService.complete(key, requestHash, status, wrapper.getContentType(),
+                        new String(wrapper.getContentAsByteArray(), StandardCharsets.UTF_8));
+            }
+        } finally {
+            idempotencyService.release(key);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // Authenticated user, or the client address for anonymous callers
+    private static String caller(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth instanceof AnonymousAuthenticationToken || !auth.isAuthenticated()) {
+            return "ip:" + request.getRemoteAddr();
+        }
+        if (auth.getPrincipal() instanceof JwtAuthenticationFilter.JwtPrincipal principal) {
+            return "user:" + principal.username();
+        }
+        return "user:" + auth.getName();
+    }
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+
+    // Name, file name and content of every part, streamed so large slips are never held in memory
+    private static String hashParts(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest md = digest();
+        byte[] buffer = new byte[8192];
+        for (Part part : request.getParts()) {
+            md.update(part.getName().getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(Objects.toString(part.getSubmittedFileName(), "").getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            try (InputStream in = part.getInputStream()) {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    md.update(buffer, 0, n);
+                }
+            }
+            md.update((byte) 0);
+        }
+        return hex(md.digest());
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] hash) {
+        return HexFormat.of().formatHex(hash);
+    }
+
+    // Reads the body once so it can be hashed and still be read by the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    private void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        response.setStatus(record.getStatus());
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        response.setHeader("Idempotent-Replayed", "true");
+        if (record.getBody() != null) {
+            byte[] body = record.getBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.vehiclerental.config;
+
+import com.vehiclerental.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Authenticates requests carrying "Authorization: Bearer <jwt>" from the token's
+ * claims alone; no database lookup happens per request. Requests without a
+ * valid token continue unauthenticated (endpoints are still permitAll).
+ *
+ * Registered in the security filter chain by SecurityConfig, not as a bean,
+ * so it does not run twice.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+
+    // Principal of a token-authenticated request
+    public record JwtPrincipal(String username, String role, Long customerId) {}
+
+    private final JwtUtil jwtUtil;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            try {
+                Claims claims = jwtUtil.parseClaims(header.substring(BEARER.length()).trim());
+                String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+                Number customerId = claims.get(JwtUtil.CUSTOMER_ID_CLAIM, Number.class);
+
+                JwtPrincipal principal = new JwtPrincipal(claims.getSubject(), role,
+                        customerId != null ? customerId.longValue() : null);
+                List<SimpleGrantedAuthority> authorities = role == null ? List.of()
+                        : List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase(Locale.ROOT)));
+
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, authorities));
+                SecurityContextHolder.setContext(context);
+            } catch (JwtException | IllegalArgumentException e) {
+                // Expired, tampered or malformed token: treat the request as anonymous
+                SecurityContextHolder.clearContext();
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,79 @@
+package com.vehiclerental.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Periodically measures how far the replica is behind the primary. While the
+ * replica is unreachable, not replicating, or lagging by more than the allowed
+ * number of seconds, read-only transactions fall back to the primary.
+ *
+ * A server that returns no replication status (e.g. a local embedded database)
+ * is treated as up to date.
+ */
+public class ReplicaLagGuard {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+    private final JdbcTemplate replicaJdbc;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private volatile boolean replicaUsable;
+    private volatile Long lastLagSeconds;
+
+    public ReplicaLagGuard(DataSource replica, String lagQuery, long maxLagSeconds) {
+        this.replicaJdbc = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public Long getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:5000}")
+    public void check() {
+        boolean usable;
+        try {
+            Long lag = replicaJdbc.query(lagQuery, rs -> rs.next() ? secondsBehind(rs) : 0L);
+            lastLagSeconds = lag;
+            usable = lag != null && lag <= maxLagSeconds;
+        } catch (RuntimeException e) {
+            lastLagSeconds = null;
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica lag check failed: {}", e.getMessage());
+            }
+        }
+        if (usable != replicaUsable) {
+            log.info("Read-only transactions now routed to the {}", usable ? "replica" : "primary");
+        }
+        replicaUsable = usable;
+    }
+
+    // Seconds_Behind_Source (MySQL 8.0.22+) or Seconds_Behind_Master; NULL means replication is stopped
+    private static Long secondsBehind(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String column = meta.getColumnLabel(i).toLowerCase(Locale.ROOT);
+            if (column.equals("seconds_behind_source") || column.equals("seconds_behind_master")) {
+                long value = rs.getLong(i);
+                return rs.wasNull() ? null : value;
+            }
+        }
+        // Custom lag query: first column holds the lag in seconds
+        long value = rs.getLong(1);
+        return rs.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,32 @@
+package com.vehiclerental.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Lifts the async request timeout (spring.mvc.async.request-timeout) for the
+ * requests a handler marks with apply(), e.g. streaming exports that can run
+ * for minutes. Every other async response keeps the default timeout.
+ */
+public class UnlimitedAsyncTimeout implements CallableProcessingInterceptor {
+    private static final String ATTRIBUTE = UnlimitedAsyncTimeout.class.getName();
+
+    // Call from the handler before returning the StreamingResponseBody / Callable
+    public static void apply(HttpServletRequest request) {
+        request.setAttribute(ATTRIBUTE, Boolean.TRUE);
+    }
+
+    // Runs after the default timeout was set and before async processing starts
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (request instanceof AsyncWebRequest asyncRequest
+                && request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            asyncRequest.setTimeout(-1L);
+        }
+    }
+}
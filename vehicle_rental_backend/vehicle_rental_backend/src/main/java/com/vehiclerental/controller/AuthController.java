@@ -1,94 +1,96 @@
 package com.vehiclerental.controller;
 
+import com.vehiclerental.Dto.LoginPrincipal;
 import com.vehiclerental.Dto.SignupRequest;
-import com.vehiclerental.entity.Customer;
-import com.vehiclerental.repository.CustomerRepository;
+import com.vehiclerental.service.AuthService;
+import com.vehiclerental.service.LoginThrottle;
+import com.vehiclerental.service.PasswordVerificationService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.vehiclerental.entity.User;
-import com.vehiclerental.repository.UserRepository;
 import com.vehiclerental.util.JwtUtil;
-
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     @Autowired
-    private UserRepository userRepository;
+    private AuthService authService;
     @Autowired
-    private CustomerRepository customerRepository;
-
+    private JwtUtil jwtUtil;
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordVerificationService passwordVerifier;
     @Autowired
-    private JwtUtil jwtUtil;
+    private LoginThrottle loginThrottle;
 
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@RequestBody SignupRequest signupRequest) {
-        if (userRepository.findByUsername(signupRequest.getUsername()).isPresent()) {
-            return ResponseEntity.badRequest().body("Username already exists!");
+        if (signupRequest.getUsername() == null || signupRequest.getUsername().isBlank()
+                || signupRequest.getPassword() == null) {
+            return ResponseEntity.badRequest().body("Username and password are required");
         }
-
-        // Save user
-        User user = new User();
-        user.setUsername(signupRequest.getUsername());
-        user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
-        user.setRole(signupRequest.getRole() != null ? signupRequest.getRole() : "USER");
-        userRepository.save(user);
-
-        // If role is CUSTOMER, save customer details
-        if ("CUSTOMER".equalsIgnoreCase(signupRequest.getRole())) {
-            Customer customer = new Customer();
-            customer.setFullName(signupRequest.getFullName());
-            customer.setNicPassportNo(signupRequest.getNicPassportNo());
-            customer.setPhoneNo(signupRequest.getPhoneNo());
-            customer.setEmail(signupRequest.getEmail());
-            customer.setAddress(signupRequest.getAddress());
-            customer.setLicenseNo(signupRequest.getLicenseNo());
-            customer.setUsername(signupRequest.getUsername()); // link to User table
-            // Save to customer table
-            customerRepository.save(customer);
+        try {
+            authService.signup(signupRequest);
+        } catch (DataIntegrityViolationException e) {
+            // Only the failure path pays for a lookup to tell which unique key was hit
+            return ResponseEntity.badRequest().body(authService.findLoginPrincipal(signupRequest.getUsername()) != null
+                    ? "Username already exists!"
+                    : "Customer with these NIC/passport, email or license details already exists!");
         }
-
         return ResponseEntity.ok("User registered successfully!");
     }
 
 
+    /* Throttled per username and client IP; BCrypt runs on its own bounded pool,
+       so a login burst cannot occupy the request threads other endpoints need */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody User loginRequest) {
-        Optional<User> userOpt = userRepository.findByUsername(loginRequest.getUsername());
-        if (userOpt.isPresent() && passwordEncoder.matches(loginRequest.getPassword(), userOpt.get().getPassword())) {
-            User user = userOpt.get();
-            String token = jwtUtil.generateToken(user.getUsername());
-            String role = user.getRole();
-
-            Long customerId = null;
-            if ("CUSTOMER".equalsIgnoreCase(role)) {
-                Optional<Customer> customerOpt = customerRepository.findByUsername(user.getUsername());
-                if (customerOpt.isPresent()) {
-                    customerId = customerOpt.get().getCustomerId();
-                }
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
-            response.put("role", role);
-            response.put("userId", user.getId());
-            response.put("customerId", customerId);
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody User loginRequest, HttpServletRequest request) {
+        long retryAfter = loginThrottle.tryAcquire(loginRequest.getUsername(), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body("Too many login attempts, try again later"));
+        }
 
-            return ResponseEntity.ok(response);
+        LoginPrincipal principal = authService.findLoginPrincipal(loginRequest.getUsername());
+        if (principal == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body("Invalid credentials"));
         }
-        return ResponseEntity.status(401).body("Invalid credentials");
+        return passwordVerifier.matches(loginRequest.getPassword(), principal.passwordHash())
+                .thenApply(matches -> matches ? loginResponse(principal) : ResponseEntity.status(401).body("Invalid credentials"));
     }
 
+    private ResponseEntity<?> loginResponse(LoginPrincipal principal) {
+        String role = principal.role();
+        Long customerId = "CUSTOMER".equalsIgnoreCase(role) ? principal.customerId() : null;
+
+        String token = jwtUtil.generateToken(principal.username(), role, customerId);
 
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", token);
+        response.put("role", role);
+        response.put("userId", principal.userId());
+        response.put("customerId", customerId);
 
+        return ResponseEntity.ok(response);
+    }
+
+    // Throttling counters plus BCrypt pool queue depth and verification latency
+    @GetMapping("/login-stats")
+    public Map<String, Object> getLoginStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(loginThrottle.getStats());
+        stats.putAll(passwordVerifier.getStats());
+        return stats;
+    }
 }
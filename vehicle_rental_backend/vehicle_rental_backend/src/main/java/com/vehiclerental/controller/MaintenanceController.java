@@ -1,10 +1,9 @@
 package com.vehiclerental.controller;
 
 
+import com.vehiclerental.Dto.MaintenanceDue;
 import com.vehiclerental.entity.Maintenance;
-import com.vehiclerental.entity.Vehicle;
 import com.vehiclerental.service.MaintenanceService;
-import com.vehiclerental.service.VehicleService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,11 +14,9 @@ import java.util.List;
 public class MaintenanceController {
 
     private final MaintenanceService maintenanceService;
-    private final VehicleService vehicleService;
 
-    public MaintenanceController(MaintenanceService maintenanceService, VehicleService vehicleService) {
+    public MaintenanceController(MaintenanceService maintenanceService) {
         this.maintenanceService = maintenanceService;
-        this.vehicleService = vehicleService;
     }
 
     // Get all maintenance records
@@ -28,6 +25,12 @@ public class MaintenanceController {
         return maintenanceService.getAllMaintenanceRecords();
     }
 
+    // Services due now or within "days" (default: the scheduler horizon), earliest first
+    @GetMapping("/due")
+    public List<MaintenanceDue> getDue(@RequestParam(required = false) Integer days) {
+        return maintenanceService.getDueMaintenance(days);
+    }
+
     // Get maintenance by ID
     @GetMapping("/{id}")
     public ResponseEntity<Maintenance> getById(@PathVariable Long id) {
@@ -39,19 +42,19 @@ public class MaintenanceController {
         }
     }
 
-    // Create a new maintenance record
+    // Schedule maintenance for [maintenanceDate, maintenanceEndDate]; the vehicle cannot be booked in that window
     @PostMapping
     public ResponseEntity<Maintenance> create(@RequestBody Maintenance maintenance) {
-        // Update vehicle availability if needed
-        if (maintenance.getVehicle() != null) {
-            Vehicle v = maintenance.getVehicle();
-            v.setAvailabilityStatus(Vehicle.AvailabilityStatus.Maintenance);
-            vehicleService.save(v);
-        }
-        Maintenance created = maintenanceService.createMaintenance(maintenance);
+        Maintenance created = maintenanceService.scheduleMaintenance(maintenance);
         return ResponseEntity.ok(created);
     }
 
+    // Create many maintenance records in one transaction
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Maintenance>> createBulk(@RequestBody List<Maintenance> records) {
+        return ResponseEntity.ok(maintenanceService.createMaintenances(records));
+    }
+
     // Update maintenance record
     @PutMapping("/{id}")
     public ResponseEntity<Maintenance> update(@PathVariable Long id, @RequestBody Maintenance updated) {
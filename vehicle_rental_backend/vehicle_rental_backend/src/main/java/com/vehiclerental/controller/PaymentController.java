@@ -1,10 +1,20 @@
 package com.vehiclerental.controller;
 
+import com.vehiclerental.Dto.ReconciliationSummary;
+import com.vehiclerental.config.UnlimitedAsyncTimeout;
 import com.vehiclerental.entity.Payment;
+import com.vehiclerental.scheduler.PaymentAutoApprovalJob;
+import com.vehiclerental.service.ExportService;
 import com.vehiclerental.service.PaymentService;
+import com.vehiclerental.service.ReconciliationService;
+import com.vehiclerental.service.SlipStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.List;
@@ -15,16 +25,52 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService service;
-    private final Path slipStorage = Paths.get("uploads/slips").toAbsolutePath().normalize();
+    private final ExportService exportService;
+    private final SlipStorageService slipStorage;
+    private final PaymentAutoApprovalJob autoApprovalJob;
+    private final ReconciliationService reconciliationService;
 
-    public PaymentController(PaymentService service) throws IOException {
+    public PaymentController(PaymentService service, ExportService exportService,
+                             SlipStorageService slipStorage, PaymentAutoApprovalJob autoApprovalJob,
+                             ReconciliationService reconciliationService) {
         this.service = service;
-        Files.createDirectories(slipStorage);
+        this.exportService = exportService;
+        this.slipStorage = slipStorage;
+        this.autoApprovalJob = autoApprovalJob;
+        this.reconciliationService = reconciliationService;
     }
 
     @GetMapping
     public List<Payment> getAll() { return service.getAll(); }
 
+    /* Stream every payment as NDJSON (default) or CSV */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        HttpServletRequest request) {
+        ExportService.Format f = ExportService.Format.from(format);
+        // A full export can stream for minutes; only this response waits without a timeout
+        UnlimitedAsyncTimeout.apply(request);
+        StreamingResponseBody body = out -> exportService.exportPayments(f, out);
+        return ResponseEntity.ok()
+                .contentType(f.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments." + f.getExtension() + "\"")
+                .body(body);
+    }
+
+    /* Metrics of the last auto-approval run (204 until it has run once) */
+    @GetMapping("/auto-approval/last-run")
+    public ResponseEntity<PaymentAutoApprovalJob.RunStats> getAutoApprovalLastRun() {
+        PaymentAutoApprovalJob.RunStats stats = autoApprovalJob.getLastRun();
+        return stats == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(stats);
+    }
+
+    /* Admin uploads a bank statement CSV as the raw request body; it is read as a
+       stream, so the multipart size limits for slips do not apply */
+    @PostMapping(value = "/reconciliation", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ReconciliationSummary reconcile(HttpServletRequest request) throws IOException {
+        return reconciliationService.reconcile(request.getInputStream());
+    }
+
     @GetMapping("/{id}")
     public Payment getById(@PathVariable Long id) { return service.getById(id); }
 
@@ -35,10 +81,13 @@ public class PaymentController {
             @RequestPart(value = "slip", required = false) MultipartFile slip) throws IOException {
 
         if (slip != null && !slip.isEmpty()) {
-            String fileName = System.currentTimeMillis() + "_" + slip.getOriginalFilename();
-            Path target = slipStorage.resolve(fileName);
-            Files.copy(slip.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
-            payment.setSlipFileName(fileName);
+            SlipStorageService.StoredSlip stored = slipStorage.store(slip);
+            payment.setSlipFileName(stored.fileName());
+            payment.setSlipSha256(stored.sha256());
+        } else {
+            // Slip references only ever point at a file stored here, never at one named by the client
+            payment.setSlipFileName(null);
+            payment.setSlipSha256(null);
         }
         return service.create(payment);
     }
@@ -52,17 +101,33 @@ public class PaymentController {
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id) { service.delete(id); }
 
-    /* Download slip */
+    /* Download slip: streamed from disk; Spring answers Range requests with 206
+       and If-None-Match / If-Modified-Since with 304 based on the headers below */
     @GetMapping("/{id}/slip")
-    public ResponseEntity<byte[]> downloadSlip(@PathVariable Long id) throws IOException {
+    public ResponseEntity<Resource> downloadSlip(@PathVariable Long id) throws IOException {
         Payment p = service.getById(id);
         if (p.getSlipFileName() == null) return ResponseEntity.notFound().build();
 
-        Path file = slipStorage.resolve(p.getSlipFileName());
-        byte[] bytes = Files.readAllBytes(file);
+        Path file = slipStorage.resolve(p.getSlipFileName()).orElse(null);
+        if (file == null) return ResponseEntity.notFound().build();
+
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        // Content-addressed slips never change, so their hash is a strong validator
+        String eTag = p.getSlipSha256() != null
+                ? p.getSlipSha256()
+                : Long.toHexString(size) + "-" + Long.toHexString(lastModified);
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
         return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + p.getSlipFileName() + "\"")
-                .body(bytes);
+                .contentType(contentType)
+                .contentLength(size)
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.vehiclerental.controller;
+
+import com.vehiclerental.entity.RentalAudit;
+import com.vehiclerental.service.RentalAuditViewService;
+import com.vehiclerental.service.RentalService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rentals/audit")
+public class RentalAuditController {
+
+    private final RentalAuditViewService service;
+
+    public RentalAuditController(RentalAuditViewService service) {
+        this.service = service;
+    }
+
+    // Audit history, newest first, one keyset page per call. "from" is inclusive, "to" exclusive;
+    // the next page continues after the cursor returned in the X-Next-Cursor header.
+    @GetMapping
+    public ResponseEntity<List<RentalAudit>> getHistory(
+            @RequestParam(required = false) Long rentalId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+
+        List<RentalAudit> page = service.getAuditPage(rentalId, from, to, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == RentalService.pageSize(limit)) {
+            response.header(RentalController.NEXT_CURSOR_HEADER, RentalAuditViewService.cursorOf(page.get(page.size() - 1)));
+        }
+        return response.body(page);
+    }
+}
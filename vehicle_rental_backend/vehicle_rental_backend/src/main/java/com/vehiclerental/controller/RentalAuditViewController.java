@@ -2,21 +2,31 @@ package com.vehiclerental.controller;
 
 import com.vehiclerental.entity.RentalAuditView;
 import com.vehiclerental.service.RentalAuditViewService;
+import com.vehiclerental.service.RentalAuditWriter;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/rentals/audit/view")
 public class RentalAuditViewController {
 
     private final RentalAuditViewService service;
+    private final RentalAuditWriter writer;
 
-    public RentalAuditViewController(RentalAuditViewService service) {
+    public RentalAuditViewController(RentalAuditViewService service, RentalAuditWriter writer) {
         this.service = service;
+        this.writer = writer;
     }
 
     @GetMapping
     public List<RentalAuditView> getAuditView() {
         return service.getAllAuditViews();
     }
+
+    // Buffered / written / overflowed counters of the audit writer
+    @GetMapping("/writer-stats")
+    public Map<String, Object> getWriterStats() {
+        return writer.getStats();
+    }
 }
@@ -1,12 +1,19 @@
 package com.vehiclerental.controller;
 
 
+import com.vehiclerental.Dto.RentalQuoteRequest;
+import com.vehiclerental.Dto.RentalQuoteResponse;
+import com.vehiclerental.config.UnlimitedAsyncTimeout;
 import com.vehiclerental.entity.Rental;
+import com.vehiclerental.service.ExportService;
+import com.vehiclerental.service.RentalQuoteService;
 import com.vehiclerental.service.RentalService;
-
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -15,22 +22,58 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/rentals")
 public class RentalController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private final RentalService rentalService;
+    private final RentalQuoteService quoteService;
+    private final ExportService exportService;
 
-    public RentalController(RentalService rentalService) {
+    public RentalController(RentalService rentalService, RentalQuoteService quoteService,
+                            ExportService exportService) {
         this.rentalService = rentalService;
+        this.quoteService = quoteService;
+        this.exportService = exportService;
     }
 
-    // Get all rentals
+    // Get all rentals, or one keyset page when any paging/filter parameter is given.
+    // The next page starts after the id returned in the X-Next-Cursor header.
     @GetMapping
-    public List<Rental> getAll() {
-        return rentalService.getAllRentals();
+    public ResponseEntity<List<Rental>> getAll(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Rental.RentalStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if (after == null && limit == null && status == null && from == null && to == null) {
+            return ResponseEntity.ok(rentalService.getAllRentals());
+        }
+
+        List<Rental> page = rentalService.getRentalsPage(after, limit, status, from, to);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == RentalService.pageSize(limit)) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getRentalId()));
+        }
+        return response.body(page);
     }
 
 
 
 
+    // Stream every rental as NDJSON (default) or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        HttpServletRequest request) {
+        ExportService.Format f = ExportService.Format.from(format);
+        // A full export can stream for minutes; only this response waits without a timeout
+        UnlimitedAsyncTimeout.apply(request);
+        StreamingResponseBody body = out -> exportService.exportRentals(f, out);
+        return ResponseEntity.ok()
+                .contentType(f.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rentals." + f.getExtension() + "\"")
+                .body(body);
+    }
+
     // Get rental by ID
     @GetMapping("/{id}")
     public ResponseEntity<Rental> getById(@PathVariable Long id) {
@@ -54,6 +97,12 @@ public class RentalController {
         return ResponseEntity.ok(rentalService.createRental(rental));
     }
 
+    // Create many rentals in one transaction; nothing is stored if any of them is rejected
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Rental>> createRentals(@RequestBody List<Rental> rentals) {
+        return ResponseEntity.ok(rentalService.createRentals(rentals));
+    }
+
     // Complete a rental
     @PostMapping("/{id}/complete")
     public ResponseEntity<Rental> completeRental(@PathVariable Long id) {
@@ -97,4 +146,10 @@ public class RentalController {
         Double amount = rentalService.getCalculatedAmount(vehicleId, rentDate, returnDate);
         return ResponseEntity.ok(amount);
     }
+
+    // Price many vehicles/periods in one call (e.g. a whole search result page)
+    @PostMapping("/quotes")
+    public ResponseEntity<List<RentalQuoteResponse>> quote(@RequestBody List<RentalQuoteRequest> requests) {
+        return ResponseEntity.ok(quoteService.quote(requests));
+    }
 }
@@ -0,0 +1,33 @@
+package com.vehiclerental.controller;
+
+import com.vehiclerental.Dto.RevenueReportRow;
+import com.vehiclerental.service.RevenueRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin
+public class ReportController {
+
+    private final RevenueRollupService rollupService;
+
+    public ReportController(RevenueRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    /* Revenue from the pre-aggregated rollups; groupBy is any of day, branch, vehicleType
+       (comma-separated), defaults to the last 30 days grouped by day */
+    @GetMapping("/revenue")
+    public List<RevenueReportRow> getRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return rollupService.report(start, end, groupBy);
+    }
+}
@@ -2,12 +2,23 @@ package com.vehiclerental.controller;
 
 
 
+import com.vehiclerental.Dto.VehicleImportResult;
+import com.vehiclerental.Dto.VehicleSearchCriteria;
+import com.vehiclerental.Dto.VehicleSearchResult;
+import com.vehiclerental.Dto.VehicleViewDTO;
 import com.vehiclerental.entity.Vehicle;
+import com.vehiclerental.service.VehicleAvailabilityFeed;
+import com.vehiclerental.service.VehicleImportService;
+import com.vehiclerental.service.VehicleSearchService;
 import com.vehiclerental.service.VehicleService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -16,9 +27,16 @@ import java.util.Map;
 public class VehicleController {
     @Autowired
     private final VehicleService vehicleService;
+    private final VehicleSearchService searchService;
+    private final VehicleImportService importService;
+    private final VehicleAvailabilityFeed availabilityFeed;
 
-    public VehicleController(VehicleService vehicleService) {
+    public VehicleController(VehicleService vehicleService, VehicleSearchService searchService,
+                             VehicleImportService importService, VehicleAvailabilityFeed availabilityFeed) {
         this.vehicleService = vehicleService;
+        this.searchService = searchService;
+        this.importService = importService;
+        this.availabilityFeed = availabilityFeed;
     }
 
     @GetMapping
@@ -42,6 +60,15 @@ public class VehicleController {
         return ResponseEntity.ok(saved);
     }
 
+    // Fleet import streamed from the raw body: CSV with a header row, a JSON array or NDJSON
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public VehicleImportResult importVehicles(HttpServletRequest request) throws IOException {
+        VehicleImportService.Format format = VehicleImportService.Format.from(
+                request.getContentType() == null ? null : MediaType.parseMediaType(request.getContentType()));
+        return importService.importVehicles(request.getInputStream(), format);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Vehicle> update(@PathVariable Long id, @RequestBody Vehicle v) {
         try {
@@ -58,6 +85,29 @@ public class VehicleController {
         return ResponseEntity.noContent().build();
     }
 
+    // Filter by type, brand, branch, rate range and free dates, with sorting and paging
+    @GetMapping("/search")
+    public VehicleSearchResult search(VehicleSearchCriteria criteria) {
+        return searchService.search(criteria);
+    }
+
+    // Hit/miss counters of the vehicle catalog cache
+    @GetMapping("/cache-stats")
+    public Map<String, Object> getCacheStats() {
+        return vehicleService.getCacheStats();
+    }
+
+    // Live availability changes as Server-Sent Events ("availability" events carrying VehicleAvailabilityDelta)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return availabilityFeed.subscribe();
+    }
+
+    @GetMapping("/stream-stats")
+    public Map<String, Object> getStreamStats() {
+        return availabilityFeed.getStats();
+    }
+
     @GetMapping("/available")
     public List<Vehicle> getAvailable() {
         return vehicleService.getAvailableVehicles();
@@ -70,8 +120,8 @@ public class VehicleController {
     }
 
     @GetMapping("/available-view")
-public ResponseEntity<List<Map<String, Object>>> getAvailableVehiclesView() {
-    return ResponseEntity.ok(vehicleService.getAvailableVehiclesView());
-}
+    public ResponseEntity<List<VehicleViewDTO>> getAvailableVehiclesView() {
+        return ResponseEntity.ok(vehicleService.getAvailableVehiclesView());
+    }
 
 }
@@ -6,7 +6,11 @@ import jakarta.persistence.*;
 @Table(name = "bank_account")
 public class BankAccount {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bank_account_gen")
+    @TableGenerator(name = "bank_account_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "bank_account",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long accountId;
 
     private String bankName;
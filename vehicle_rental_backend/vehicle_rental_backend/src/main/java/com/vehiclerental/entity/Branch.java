@@ -2,13 +2,19 @@ package com.vehiclerental.entity;
 
 
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.util.List;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "branch")
 public class Branch {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "branch_gen")
+    @TableGenerator(name = "branch_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "branch",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long branchId;
 
     @Column(nullable = false)
@@ -17,9 +23,12 @@ public class Branch {
     private String location;
     private String contactNo;
 
-    // Manager - optional relationship to Staff (one manager)
-    @OneToOne
+    // Manager - optional relationship to Staff (one manager); lazy, fetch plans add it where branches are returned
+    // The manager's own branch is left out of the JSON: it is either this branch again (a cycle)
+    // or an unloaded proxy, which fails once the entity is detached (e.g. served from a cache)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
+    @JsonIgnoreProperties({"branch", "hibernateLazyInitializer", "handler"})
     private Staff manager;
 
     // Constructors, getters, setters
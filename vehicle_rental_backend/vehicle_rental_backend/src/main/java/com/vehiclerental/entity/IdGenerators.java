@@ -0,0 +1,22 @@
+package com.vehiclerental.entity;
+
+/**
+ * Shared settings of the pooled table-based id generators.
+ *
+ * IDENTITY columns force Hibernate to insert rows one by one to learn their ids;
+ * with ids handed out in blocks of ALLOCATION_SIZE from the id_generator table,
+ * inserts can be grouped into JDBC batches.
+ *
+ * Only for entities never inserted while a row lock is held: the block is
+ * fetched on a separate pool connection, which lock waiters may have used up.
+ * Rental and Maintenance therefore stay IDENTITY (bulk paths use BatchInserts).
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generator";
+    public static final String PK_COLUMN = "gen_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {}
+}
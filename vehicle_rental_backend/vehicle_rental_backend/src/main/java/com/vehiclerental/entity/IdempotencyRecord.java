@@ -0,0 +1,53 @@
+package com.vehiclerental.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Response of a completed request, replayed when the same Idempotency-Key is retried
+@Entity
+@Table(name = "idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_created", columnList = "created_at")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 200)
+    private String key;                   // "<METHOD> <path> <sha-256 of caller + client key>"
+
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;           // sha-256 of the request body
+
+    private int status;
+    private String contentType;
+
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    private String body;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String key, String requestHash, int status, String contentType, String body) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.status = status;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    /* --- getters / setters --- */
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
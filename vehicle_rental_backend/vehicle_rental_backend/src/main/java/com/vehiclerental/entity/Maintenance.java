@@ -6,17 +6,29 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "maintenance")
+@Table(name = "maintenance", indexes = {
+        // Range scan of upcoming services by MaintenanceDueScheduler
+        @Index(name = "idx_maintenance_next_service", columnList = "next_service_date, vehicle_id"),
+        // Maintenance windows of one vehicle (booking checks)
+        @Index(name = "idx_maintenance_vehicle_dates", columnList = "vehicle_id, maintenance_date, maintenance_end_date"),
+        // Vehicles in maintenance inside a date window (vehicle search); end date first, like rental
+        @Index(name = "idx_maintenance_end_vehicle", columnList = "maintenance_end_date, maintenance_date, vehicle_id")
+})
 public class Maintenance {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY like Rental: windows are inserted under the vehicle row lock (see Rental.rentalId)
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long maintenanceId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id")
     private Vehicle vehicle;
 
+    // The vehicle is blocked for bookings from maintenanceDate through maintenanceEndDate (inclusive)
     private LocalDate maintenanceDate;
 
+    private LocalDate maintenanceEndDate;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -32,6 +44,8 @@ public class Maintenance {
     public void setVehicle(Vehicle vehicle) { this.vehicle = vehicle; }
     public LocalDate getMaintenanceDate() { return maintenanceDate; }
     public void setMaintenanceDate(LocalDate maintenanceDate) { this.maintenanceDate = maintenanceDate; }
+    public LocalDate getMaintenanceEndDate() { return maintenanceEndDate; }
+    public void setMaintenanceEndDate(LocalDate maintenanceEndDate) { this.maintenanceEndDate = maintenanceEndDate; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     public Double getCost() { return cost; }
@@ -5,13 +5,20 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payment")
+@Table(name = "payment", indexes = {
+        // Chunked scan of the auto-approval job
+        @Index(name = "idx_payment_status_method_created", columnList = "payment_status, payment_method, created_at")
+})
 public class Payment {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payment_gen")
+    @TableGenerator(name = "payment_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "payment",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long paymentId;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rental_id", unique = true)
     private Rental rental;
 
@@ -28,6 +35,9 @@ public class Payment {
 
     private String transactionId;
     private String slipFileName;          // stored file name
+
+    @Column(name = "slip_sha256", length = 64)
+    private String slipSha256;            // content hash of the slip
     private String paymentDetails;        // customer note
     private String adminNotes;            // admin only
 
@@ -53,6 +63,8 @@ public class Payment {
     public void setTransactionId(String transactionId) { this.transactionId = transactionId; }
     public String getSlipFileName() { return slipFileName; }
     public void setSlipFileName(String slipFileName) { this.slipFileName = slipFileName; }
+    public String getSlipSha256() { return slipSha256; }
+    public void setSlipSha256(String slipSha256) { this.slipSha256 = slipSha256; }
     public String getPaymentDetails() { return paymentDetails; }
     public void setPaymentDetails(String paymentDetails) { this.paymentDetails = paymentDetails; }
     public String getAdminNotes() { return adminNotes; }
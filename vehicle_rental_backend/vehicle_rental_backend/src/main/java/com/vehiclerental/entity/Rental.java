@@ -1,25 +1,51 @@
 package com.vehiclerental.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "rental")
+@NamedEntityGraph(name = Rental.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("customer"),
+                @NamedAttributeNode(value = "vehicle", subgraph = "vehicle"),
+                @NamedAttributeNode(value = "staff", subgraph = "staff")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "vehicle", attributeNodes = @NamedAttributeNode(value = "branch", subgraph = "branch")),
+                @NamedSubgraph(name = "staff", attributeNodes = @NamedAttributeNode(value = "branch", subgraph = "branch")),
+                @NamedSubgraph(name = "branch", attributeNodes = @NamedAttributeNode("manager"))
+        })
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "rental", indexes = {
+        // Serves the overlap check when booking a vehicle
+        @Index(name = "idx_rental_vehicle_dates", columnList = "vehicle_id, rental_date, return_date"),
+        // Keyset paging of GET /api/rentals filtered by status
+        @Index(name = "idx_rental_status_id", columnList = "rental_status, rental_id"),
+        // Vehicles booked inside a date window (vehicle search); led by the end date so the scan
+        // starts at the window and skips the rentals that finished before it, covering the status check
+        @Index(name = "idx_rental_return_vehicle", columnList = "return_date, rental_date, vehicle_id, rental_status")
+})
 public class Rental {
 
+    // Customer, vehicle and staff (with their branches and branch managers) in a single join
+    public static final String DETAILS_GRAPH = "Rental.details";
+
+    // IDENTITY, not a pooled table generator: rentals are inserted while the vehicle row is locked,
+    // and fetching an id block there needs a second pool connection. Bulk bookings batch through JDBC.
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long rentalId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
     private Customer customer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id")
     private Vehicle vehicle;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "staff_id")
     private Staff staff;
 
@@ -0,0 +1,55 @@
+package com.vehiclerental.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Rows of rental_audit; written by RentalAuditWriter over JDBC, only read through JPA
+@Entity
+@Immutable
+@Table(name = "rental_audit", indexes = {
+        // History of one rental, newest first
+        @Index(name = "idx_rental_audit_rental_changed", columnList = "rental_id, changed_at"),
+        // Keyset paging over the whole log by (changed_at, id)
+        @Index(name = "idx_rental_audit_changed_id", columnList = "changed_at, id")
+})
+public class RentalAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rental_id")
+    private Long rentalId;
+
+    private String action;
+
+    @Column(name = "changed_by")
+    private String changedBy;
+
+    @Column(name = "changed_at")
+    private LocalDateTime changedAt;
+
+    public RentalAudit() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getChangedBy() {
+        return changedBy;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,66 @@
+package com.vehiclerental.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Pre-aggregated revenue per (day, branch, vehicle type); maintained by RevenueRollupService
+@Entity
+@IdClass(RevenueRollup.Key.class)
+@Table(name = "revenue_rollup")
+public class RevenueRollup {
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    @Column(name = "branch_id")
+    private Long branchId;                // 0 when the vehicle has no branch
+
+    @Id
+    @Column(name = "vehicle_type", length = 50)
+    private String vehicleType;           // "" when unknown
+
+    private Double revenue;               // paid payments, by payment date
+    private Long paymentCount;
+    private Long rentalCount;             // non-cancelled rentals, by rental date
+    private Double bookedAmount;
+
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Long branchId;
+        private String vehicleType;
+
+        public Key() {}
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return Objects.equals(day, k.day) && Objects.equals(branchId, k.branchId)
+                    && Objects.equals(vehicleType, k.vehicleType);
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(day, branchId, vehicleType); }
+    }
+
+    public RevenueRollup() {}
+
+    /* --- getters / setters --- */
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+    public String getVehicleType() { return vehicleType; }
+    public void setVehicleType(String vehicleType) { this.vehicleType = vehicleType; }
+    public Double getRevenue() { return revenue; }
+    public void setRevenue(Double revenue) { this.revenue = revenue; }
+    public Long getPaymentCount() { return paymentCount; }
+    public void setPaymentCount(Long paymentCount) { this.paymentCount = paymentCount; }
+    public Long getRentalCount() { return rentalCount; }
+    public void setRentalCount(Long rentalCount) { this.rentalCount = rentalCount; }
+    public Double getBookedAmount() { return bookedAmount; }
+    public void setBookedAmount(Double bookedAmount) { this.bookedAmount = bookedAmount; }
+}
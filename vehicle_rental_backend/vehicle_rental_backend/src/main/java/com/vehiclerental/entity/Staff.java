@@ -2,12 +2,18 @@ package com.vehiclerental.entity;
 
 
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "staff")
 public class Staff {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "staff_gen")
+    @TableGenerator(name = "staff_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "staff",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long staffId;
 
     @Column(nullable = false)
@@ -20,7 +26,7 @@ public class Staff {
     private String username;
     private String password;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "branch_id")
     private Branch branch;
 
@@ -2,12 +2,23 @@ package com.vehiclerental.entity;
 
 
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "vehicle")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "vehicle", indexes = {
+        // Vehicle search filters
+        @Index(name = "idx_vehicle_type_brand", columnList = "vehicle_type, brand"),
+        @Index(name = "idx_vehicle_branch_status", columnList = "branch_id, availability_status"),
+        @Index(name = "idx_vehicle_daily_rate", columnList = "daily_rate")
+})
 public class Vehicle {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "vehicle_gen")
+    @TableGenerator(name = "vehicle_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "vehicle",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long vehicleId;
 
     private String vehicleType;
@@ -22,7 +33,7 @@ public class Vehicle {
     @Enumerated(EnumType.STRING)
     private AvailabilityStatus availabilityStatus = AvailabilityStatus.Available;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "branch_id")
     private Branch branch;
 
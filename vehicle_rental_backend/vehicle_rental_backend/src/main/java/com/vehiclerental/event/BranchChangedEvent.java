@@ -0,0 +1,12 @@
+package com.vehiclerental.event;
+
+// Published when a branch is renamed or deleted
+public class BranchChangedEvent {
+    private final Long branchId;
+
+    public BranchChangedEvent(Long branchId) {
+        this.branchId = branchId;
+    }
+
+    public Long getBranchId() { return branchId; }
+}
@@ -0,0 +1,20 @@
+package com.vehiclerental.event;
+
+import com.vehiclerental.Dto.VehicleAvailabilityDelta;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by the vehicle projection after a refresh (i.e. after commit) for
+ * the vehicles whose availability status or branch actually changed.
+ */
+public class VehicleAvailabilityChangedEvent {
+    private final List<VehicleAvailabilityDelta> deltas;
+
+    public VehicleAvailabilityChangedEvent(Collection<VehicleAvailabilityDelta> deltas) {
+        this.deltas = List.copyOf(deltas);
+    }
+
+    public List<VehicleAvailabilityDelta> getDeltas() { return deltas; }
+}
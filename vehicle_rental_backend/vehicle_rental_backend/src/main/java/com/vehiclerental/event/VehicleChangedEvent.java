@@ -0,0 +1,22 @@
+package com.vehiclerental.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published whenever vehicle rows may have changed (directly, or through the
+ * rental triggers). Listeners reload or evict the given vehicles.
+ */
+public class VehicleChangedEvent {
+    private final List<Long> vehicleIds;
+
+    public VehicleChangedEvent(Collection<Long> vehicleIds) {
+        this.vehicleIds = List.copyOf(vehicleIds);
+    }
+
+    public static VehicleChangedEvent of(Long vehicleId) {
+        return new VehicleChangedEvent(List.of(vehicleId));
+    }
+
+    public List<Long> getVehicleIds() { return vehicleIds; }
+}
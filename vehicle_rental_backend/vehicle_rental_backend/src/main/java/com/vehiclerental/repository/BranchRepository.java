@@ -2,10 +2,27 @@ package com.vehiclerental.repository;
 
 
 import com.vehiclerental.entity.Branch;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface BranchRepository extends JpaRepository<Branch, Long> {
+
+    // Manager is lazy; fetch it together with the branch rows
+    @Override
+    @EntityGraph(attributePaths = "manager")
+    List<Branch> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "manager")
+    Optional<Branch> findById(Long id);
+
+    @Query("SELECT b.branchId FROM Branch b")
+    List<Long> findAllIds();
 }
 
@@ -1,15 +1,40 @@
 package com.vehiclerental.repository;
 
+import com.vehiclerental.Dto.MaintenanceDue;
 import com.vehiclerental.entity.Maintenance;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MaintenanceRepository extends JpaRepository<Maintenance, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"vehicle", "vehicle.branch", "vehicle.branch.manager"})
+    List<Maintenance> findAll();
+
     // Find all maintenance records for a specific vehicle
+    @EntityGraph(attributePaths = {"vehicle", "vehicle.branch", "vehicle.branch.manager"})
     List<Maintenance> findByVehicle_VehicleId(Long vehicleId);
+
+    // Services due up to the horizon, via idx_maintenance_next_service. Only a vehicle's latest
+    // record counts: a newer maintenance means the earlier next service has been done.
+    @Query("SELECT new com.vehiclerental.Dto.MaintenanceDue(m.maintenanceId, v.vehicleId, v.registrationNo, " +
+            "m.nextServiceDate) FROM Maintenance m JOIN m.vehicle v " +
+            "WHERE m.nextServiceDate <= :horizon AND NOT EXISTS (SELECT 1 FROM Maintenance n " +
+            "WHERE n.vehicle = m.vehicle AND n.maintenanceDate > m.maintenanceDate) " +
+            "ORDER BY m.nextServiceDate, v.vehicleId")
+    List<MaintenanceDue> findDueUntil(@Param("horizon") LocalDate horizon);
+
+    // Those of the given vehicles that have a maintenance window covering the day
+    @Query("SELECT DISTINCT m.vehicle.vehicleId FROM Maintenance m WHERE m.vehicle.vehicleId IN :vehicleIds " +
+            "AND m.maintenanceDate <= :day AND m.maintenanceEndDate >= :day")
+    List<Long> findVehicleIdsInWindow(@Param("vehicleIds") Collection<Long> vehicleIds, @Param("day") LocalDate day);
 }
 
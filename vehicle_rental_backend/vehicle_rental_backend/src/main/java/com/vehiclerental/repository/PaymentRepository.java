@@ -1,14 +1,80 @@
 package com.vehiclerental.repository;
 
 import com.vehiclerental.entity.Payment;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    // Rental and its associations are lazy; fetch them with the payments in one statement
+    @Override
+    @EntityGraph(attributePaths = {"rental", "rental.customer", "rental.vehicle", "rental.vehicle.branch",
+            "rental.vehicle.branch.manager", "rental.staff", "rental.staff.branch", "rental.staff.branch.manager"})
+    List<Payment> findAll();
+
     Payment findByRental_RentalId(Long rentalId);
 
-    /* Used by MySQL event to auto-approve after 6 days */
+    // Cursor over every payment for exports; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p LEFT JOIN FETCH p.rental ORDER BY p.paymentId")
+    Stream<Payment> streamAll();
+
+    /* [paymentId, transactionId, amount, paymentStatus] of every payment with a
+       transaction id; reconciliation builds its lookup index from this once per import */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.paymentId, p.transactionId, p.amount, p.paymentStatus FROM Payment p " +
+            "WHERE p.transactionId IS NOT NULL")
+    Stream<Object[]> streamTransactionIndex();
+
+    /* All pending online payments (the auto-approval job scans them in chunks instead) */
     @Query("SELECT p FROM Payment p WHERE p.paymentStatus = 'Pending' AND p.paymentMethod = 'Online'")
     List<Payment> findPendingOnlinePayments();
+
+    /* [paymentId, createdAt] of pending online payments created before the cutoff,
+       after the (createdAt, paymentId) cursor; served by idx_payment_status_method_created */
+    @Query("SELECT p.paymentId, p.createdAt FROM Payment p " +
+            "WHERE p.paymentStatus = 'Pending' AND p.paymentMethod = 'Online' AND p.createdAt < :cutoff " +
+            "AND (p.createdAt > :afterCreatedAt OR (p.createdAt = :afterCreatedAt AND p.paymentId > :afterId)) " +
+            "ORDER BY p.createdAt, p.paymentId")
+    List<Object[]> findPendingOnlineChunk(@Param("cutoff") LocalDateTime cutoff,
+                                          @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    /* Locks the given payments that are still Pending, so the ids returned are exactly
+       the rows a following approvePendingPayments flips (revenue rollups rely on it) */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.paymentId FROM Payment p WHERE p.paymentId IN :ids AND p.paymentStatus = 'Pending'")
+    List<Long> lockPendingIds(@Param("ids") Collection<Long> ids);
+
+    /* Same for any not-yet-Paid status (reconciliation also settles Failed payments) */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.paymentId FROM Payment p WHERE p.paymentId IN :ids AND p.paymentStatus <> 'Paid'")
+    List<Long> lockUnpaidIds(@Param("ids") Collection<Long> ids);
+
+    /* Bulk approval of one chunk; rows approved meanwhile are left alone */
+    @Modifying
+    @Query("UPDATE Payment p SET p.paymentStatus = 'Paid', p.paymentDate = COALESCE(p.paymentDate, :today) " +
+            "WHERE p.paymentId IN :ids AND p.paymentStatus = 'Pending'")
+    int approvePendingPayments(@Param("ids") Collection<Long> ids, @Param("today") LocalDate today);
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.vehiclerental.repository;
+
+import com.vehiclerental.entity.RentalAudit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * Newest-first keyset pages. Rows come strictly before the (beforeAt, beforeId) cursor;
+ * the changed_at range lets MySQL scan the index backwards from the cursor and stop
+ * after one page.
+ */
+@Repository
+public interface RentalAuditRepository extends JpaRepository<RentalAudit, Long> {
+
+    // Walks idx_rental_audit_changed_id (changed_at, id)
+    @Query("SELECT a FROM RentalAudit a " +
+            "WHERE a.changedAt >= :from AND a.changedAt <= :beforeAt " +
+            "AND (a.changedAt < :beforeAt OR a.id < :beforeId) " +
+            "ORDER BY a.changedAt DESC, a.id DESC")
+    List<RentalAudit> findPageBefore(@Param("from") LocalDateTime from,
+                                     @Param("beforeAt") LocalDateTime beforeAt,
+                                     @Param("beforeId") Long beforeId,
+                                     Pageable page);
+
+    // Walks idx_rental_audit_rental_changed (rental_id, changed_at), which carries the id as well
+    @Query("SELECT a FROM RentalAudit a WHERE a.rentalId = :rentalId " +
+            "AND a.changedAt >= :from AND a.changedAt <= :beforeAt " +
+            "AND (a.changedAt < :beforeAt OR a.id < :beforeId) " +
+            "ORDER BY a.changedAt DESC, a.id DESC")
+    List<RentalAudit> findRentalPageBefore(@Param("rentalId") Long rentalId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("beforeAt") LocalDateTime beforeAt,
+                                           @Param("beforeId") Long beforeId,
+                                           Pageable page);
+}
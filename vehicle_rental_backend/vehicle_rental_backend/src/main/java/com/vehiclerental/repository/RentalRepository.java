@@ -1,31 +1,116 @@
 package com.vehiclerental.repository;
 
 
+import com.vehiclerental.Dto.BlockedInterval;
 import com.vehiclerental.entity.Rental;
-import com.vehiclerental.entity.RentalAudit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
 
+    // All rentals with customer, vehicle and staff fetched in one statement
+    @EntityGraph(Rental.DETAILS_GRAPH)
+    @Query("SELECT r FROM Rental r")
+    List<Rental> findAllWithDetails();
+
+    @Override
+    @EntityGraph(Rental.DETAILS_GRAPH)
+    Optional<Rental> findById(Long id);
+
     // Find all rentals by a specific customer
+    @EntityGraph(Rental.DETAILS_GRAPH)
     List<Rental> findByCustomer_CustomerId(Long customerId);
 
     // Find rentals by status (e.g. 'Ongoing', 'Completed')
+    @EntityGraph(Rental.DETAILS_GRAPH)
     List<Rental> findByRentalStatus(String status);
 
+    @EntityGraph(Rental.DETAILS_GRAPH)
     List<Rental> findByCustomerCustomerId(Long customerId);
 
     @Query(value = "SELECT * FROM View_Active_Rentals", nativeQuery = true)
     List<Map<String, Object>> getActiveRentalsFromView();
 
+    // Cursor over every rental for exports; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Rental r LEFT JOIN FETCH r.customer LEFT JOIN FETCH r.vehicle " +
+            "LEFT JOIN FETCH r.staff ORDER BY r.rentalId")
+    Stream<Rental> streamAll();
+
+    // Keyset page: rentals after the given id, walking the primary key in order
+    @EntityGraph(Rental.DETAILS_GRAPH)
+    @Query("SELECT r FROM Rental r WHERE r.rentalId > :after " +
+            "AND (:status IS NULL OR r.rentalStatus = :status) " +
+            "AND (:from IS NULL OR r.rentalDate >= :from) " +
+            "AND (:to IS NULL OR r.rentalDate <= :to) " +
+            "ORDER BY r.rentalId")
+    List<Rental> findPageAfter(
+        @Param("after") Long after,
+        @Param("status") Rental.RentalStatus status,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        Pageable pageable
+    );
+
+    // Vehicles that are rented or in maintenance at some point in [from, to]. The end-date bound is
+    // the range scan (idx_rental_return_vehicle, idx_maintenance_end_vehicle): only bookings still
+    // running at :from are read, not the whole history before :to; start date and status are checked in the index
+    @Query(value = "SELECT r.vehicle_id FROM rental r " +
+            "WHERE r.return_date >= :from AND r.rental_date <= :to AND r.rental_status <> 'Cancelled' " +
+            "UNION " +
+            "SELECT m.vehicle_id FROM maintenance m " +
+            "WHERE m.maintenance_end_date >= :from AND m.maintenance_date <= :to",
+            nativeQuery = true)
+    List<Number> findBlockedVehicleIds(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // True if the vehicle already has a non-cancelled rental overlapping [rentalDate, returnDate]
+    @Query("SELECT COUNT(r) > 0 FROM Rental r " +
+            "WHERE r.vehicle.vehicleId = :vehicleId " +
+            "AND r.rentalDate <= :returnDate AND r.returnDate >= :rentalDate " +
+            "AND r.rentalStatus <> com.vehiclerental.entity.Rental.RentalStatus.Cancelled")
+    boolean existsOverlappingRental(
+        @Param("vehicleId") Long vehicleId,
+        @Param("rentalDate") LocalDate rentalDate,
+        @Param("returnDate") LocalDate returnDate
+    );
+
+    // Rentals and maintenance windows of the given vehicles overlapping [from, to], in one statement;
+    // probes idx_rental_vehicle_dates and idx_maintenance_vehicle_dates per vehicle
+    default List<BlockedInterval> findBlockedIntervals(Collection<Long> vehicleIds, LocalDate from, LocalDate to) {
+        return findBlockedIntervalRows(vehicleIds, from, to).stream().map(BlockedInterval::fromRow).toList();
+    }
+
+    // [vehicleId, start, end, isMaintenance] rows behind findBlockedIntervals
+    @Query(value = "SELECT r.vehicle_id, r.rental_date, r.return_date, 0 " +
+            "FROM rental r WHERE r.vehicle_id IN (:vehicleIds) " +
+            "AND r.rental_date <= :to AND r.return_date >= :from AND r.rental_status <> 'Cancelled' " +
+            "UNION ALL " +
+            "SELECT m.vehicle_id, m.maintenance_date, m.maintenance_end_date, 1 " +
+            "FROM maintenance m WHERE m.vehicle_id IN (:vehicleIds) " +
+            "AND m.maintenance_date <= :to AND m.maintenance_end_date >= :from",
+            nativeQuery = true)
+    List<Object[]> findBlockedIntervalRows(@Param("vehicleIds") Collection<Long> vehicleIds,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
     @Query(value = "SELECT CalcRentalAmount(:vehicleId, :rentDate, :returnDate)", nativeQuery = true)
     Double calculateRentalAmount(
         @Param("vehicleId") int vehicleId,
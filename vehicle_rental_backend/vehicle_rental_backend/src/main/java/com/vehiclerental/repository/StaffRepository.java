@@ -2,9 +2,22 @@ package com.vehiclerental.repository;
 
 
 import com.vehiclerental.entity.Staff;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface StaffRepository extends JpaRepository<Staff, Long> {
+
+    // Branch is lazy; fetch it together with the staff rows
+    @Override
+    @EntityGraph(attributePaths = {"branch", "branch.manager"})
+    List<Staff> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"branch", "branch.manager"})
+    Optional<Staff> findById(Long id);
 }
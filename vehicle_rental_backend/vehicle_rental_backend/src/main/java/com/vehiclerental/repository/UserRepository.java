@@ -1,12 +1,22 @@
 package com.vehiclerental.repository;
 
 
+import com.vehiclerental.Dto.LoginPrincipal;
 import com.vehiclerental.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // User plus linked customer id in a single statement (served by the unique username index)
+    @Query("SELECT new com.vehiclerental.Dto.LoginPrincipal(u.id, u.username, u.password, u.role, c.customerId) " +
+            "FROM User u LEFT JOIN Customer c ON c.username = u.username " +
+            "WHERE u.username = :username ORDER BY c.customerId")
+    List<LoginPrincipal> findLoginPrincipals(@Param("username") String username);
 }
@@ -1,31 +1,92 @@
 package com.vehiclerental.repository;
 
 
+import com.vehiclerental.Dto.VehicleSnapshot;
 import com.vehiclerental.entity.Vehicle;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
 
+    // Branch is lazy; list and detail reads fetch it in the same statement
+    @Override
+    @EntityGraph(attributePaths = {"branch", "branch.manager"})
+    List<Vehicle> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"branch", "branch.manager"})
+    Optional<Vehicle> findById(Long id);
+
     // Custom query to find vehicles by availability status
+    @EntityGraph(attributePaths = {"branch", "branch.manager"})
     List<Vehicle> findByAvailabilityStatus(String status);
 
     // Custom query to find vehicles by branch
+    @EntityGraph(attributePaths = {"branch", "branch.manager"})
     List<Vehicle> findByBranch_BranchId(Long branchId);
 
-    @Query(value = "SELECT * FROM vehicle_dashboard_view", nativeQuery = true)
-    List<Map<String, Object>> getVehicleViewData();
+    // Normalized registration numbers of every vehicle, for duplicate checks during imports
+    @Query("SELECT UPPER(TRIM(v.registrationNo)) FROM Vehicle v WHERE v.registrationNo IS NOT NULL")
+    List<String> findAllRegistrationKeys();
+
+    // Row lock on a single vehicle (SELECT ... FOR UPDATE) to serialize bookings per vehicle
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.vehicleId = :vehicleId")
+    Optional<Vehicle> findByIdForUpdate(@Param("vehicleId") Long vehicleId);
+
+    // Same lock for a set of vehicles; id order keeps concurrent bulk bookings from deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.vehicleId IN :ids ORDER BY v.vehicleId")
+    List<Vehicle> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Available vehicles with a maintenance window covering the day (the window started after it was booked)
+    @Query("SELECT v.vehicleId FROM Vehicle v " +
+            "WHERE v.availabilityStatus = com.vehiclerental.entity.Vehicle.AvailabilityStatus.Available " +
+            "AND EXISTS (SELECT 1 FROM Maintenance m WHERE m.vehicle = v " +
+            "AND m.maintenanceDate <= :day AND m.maintenanceEndDate >= :day)")
+    List<Long> findAvailableInMaintenanceWindow(@Param("day") LocalDate day);
+
+    // Vehicles still marked Maintenance after their windows ended; ones set by hand without any window are left alone
+    @Query("SELECT v.vehicleId FROM Vehicle v " +
+            "WHERE v.availabilityStatus = com.vehiclerental.entity.Vehicle.AvailabilityStatus.Maintenance " +
+            "AND EXISTS (SELECT 1 FROM Maintenance m WHERE m.vehicle = v AND m.maintenanceEndDate < :day) " +
+            "AND NOT EXISTS (SELECT 1 FROM Maintenance m WHERE m.vehicle = v " +
+            "AND m.maintenanceDate <= :day AND m.maintenanceEndDate >= :day)")
+    List<Long> findInMaintenanceAfterWindow(@Param("day") LocalDate day);
+
+    // Moves the given vehicles from one status to another; vehicles no longer in the "from" status are skipped
+    @Modifying
+    @Query("UPDATE Vehicle v SET v.availabilityStatus = :to WHERE v.vehicleId IN :ids AND v.availabilityStatus = :from")
+    int updateAvailabilityStatus(@Param("ids") Collection<Long> ids,
+                                 @Param("from") Vehicle.AvailabilityStatus from,
+                                 @Param("to") Vehicle.AvailabilityStatus to);
+
+    // [vehicleId, dailyRate] pairs for the given vehicles
+    @Query("SELECT v.vehicleId, v.dailyRate FROM Vehicle v WHERE v.vehicleId IN :ids")
+    List<Object[]> findDailyRates(@Param("ids") Collection<Long> ids);
 
-    @Query(value = "SELECT * FROM vehicle_dashboard_view", nativeQuery = true)
-List<Map<String, Object>> getVehicleDashboardData();
+    // Same rows as vehicle_dashboard_view, typed, for the in-memory projection
+    @Query("SELECT new com.vehiclerental.Dto.VehicleSnapshot(v.vehicleId, v.vehicleType, v.brand, v.model, " +
+            "v.registrationNo, v.dailyRate, b.branchId, b.branchName, v.availabilityStatus) " +
+            "FROM Vehicle v JOIN v.branch b")
+    List<VehicleSnapshot> findSnapshots();
 
-@Query(value = "SELECT * FROM View_Available_Vehicles", nativeQuery = true)
-List<Map<String, Object>> getAvailableVehiclesFromView();
+    @Query("SELECT new com.vehiclerental.Dto.VehicleSnapshot(v.vehicleId, v.vehicleType, v.brand, v.model, " +
+            "v.registrationNo, v.dailyRate, b.branchId, b.branchName, v.availabilityStatus) " +
+            "FROM Vehicle v JOIN v.branch b WHERE v.vehicleId IN :ids")
+    List<VehicleSnapshot> findSnapshotsByIds(@Param("ids") Collection<Long> ids);
 
 }
 
@@ -0,0 +1,203 @@
+package com.vehiclerental.scheduler;
+
+import com.vehiclerental.Dto.MaintenanceDue;
+import com.vehiclerental.entity.Maintenance;
+import com.vehiclerental.entity.Vehicle;
+import com.vehiclerental.event.VehicleChangedEvent;
+import com.vehiclerental.repository.MaintenanceRepository;
+import com.vehiclerental.repository.VehicleRepository;
+import com.vehiclerental.service.MaintenanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Takes vehicles out of service when their next maintenance comes due.
+ *
+ * Services due within maintenance.due.horizon-days are loaded from the
+ * (next_service_date, vehicle_id) index into a priority queue; the queue is
+ * reloaded every maintenance.due.rescan-ms or after maintenance records change.
+ * Each tick polls the entries that have come due and books a maintenance window
+ * of maintenance.due.window-days from today through MaintenanceService, so the
+ * service blocks bookings like any other window. Vehicles booked today are left
+ * alone and are picked up by a later rescan once returned.
+ *
+ * Every rescan also moves vehicle statuses along with the windows: Available to
+ * Maintenance when a window has started, back to Available once it has ended.
+ */
+@Component
+public class MaintenanceDueScheduler {
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceDueScheduler.class);
+
+    private static final Comparator<MaintenanceDue> ORDER = Comparator.comparing(MaintenanceDue::nextServiceDate)
+            .thenComparing(MaintenanceDue::vehicleId);
+
+    private final MaintenanceRepository maintenanceRepo;
+    private final VehicleRepository vehicleRepo;
+    private final MaintenanceService maintenanceService;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final boolean enabled;
+    private final int horizonDays;
+    private final int windowDays;
+    private final long rescanNanos;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Guarded by this: services not yet due, and services that came due since the last rescan
+    private final PriorityQueue<MaintenanceDue> upcoming = new PriorityQueue<>(ORDER);
+    private final List<MaintenanceDue> due = new ArrayList<>();
+
+    private volatile boolean rescanRequested = true;
+    private volatile long lastScanNanos;
+
+    // MaintenanceService is lazy: it asks this scheduler for rescans, and this books windows through it
+    public MaintenanceDueScheduler(MaintenanceRepository maintenanceRepo, VehicleRepository vehicleRepo,
+                                   @Lazy MaintenanceService maintenanceService,
+                                   TransactionTemplate tx, ApplicationEventPublisher events,
+                                   @Value("${maintenance.due.enabled:true}") boolean enabled,
+                                   @Value("${maintenance.due.horizon-days:14}") int horizonDays,
+                                   @Value("${maintenance.due.window-days:1}") int windowDays,
+                                   @Value("${maintenance.due.rescan-ms:900000}") long rescanMs,
+                                   @Value("${maintenance.due.batch-size:200}") int batchSize) {
+        this.maintenanceRepo = maintenanceRepo;
+        this.vehicleRepo = vehicleRepo;
+        this.maintenanceService = maintenanceService;
+        this.tx = tx;
+        this.events = events;
+        this.enabled = enabled;
+        this.horizonDays = horizonDays;
+        this.windowDays = Math.max(1, windowDays);
+        this.rescanNanos = TimeUnit.MILLISECONDS.toNanos(rescanMs);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${maintenance.due.tick-ms:60000}")
+    public void tick() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            if (rescanRequested || System.nanoTime() - lastScanNanos >= rescanNanos) {
+                rescan(today);
+                syncStatuses(today);
+            }
+            List<MaintenanceDue> cameDue = pollDue(today);
+            if (!cameDue.isEmpty()) {
+                int booked = bookWindows(cameDue, today);
+                log.info("Maintenance due: {} services came due, {} vehicles taken out of service",
+                        cameDue.size(), booked);
+            }
+        } catch (RuntimeException e) {
+            log.error("Maintenance due run failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Reload on the next tick, e.g. after maintenance records were created, changed or deleted
+    public void requestRescan() {
+        rescanRequested = true;
+    }
+
+    // Due and upcoming services within the given number of days (capped at the horizon), earliest first
+    public synchronized List<MaintenanceDue> getDue(Integer days) {
+        int window = days == null ? horizonDays : Math.max(0, Math.min(days, horizonDays));
+        LocalDate until = LocalDate.now().plusDays(window);
+        List<MaintenanceDue> result = new ArrayList<>(due);
+        for (MaintenanceDue m : upcoming) {
+            if (!m.nextServiceDate().isAfter(until)) {
+                result.add(m);
+            }
+        }
+        result.sort(ORDER);
+        return result;
+    }
+
+    private void rescan(LocalDate today) {
+        rescanRequested = false;
+        List<MaintenanceDue> rows = maintenanceRepo.findDueUntil(today.plusDays(horizonDays));
+        synchronized (this) {
+            upcoming.clear();
+            due.clear();
+            upcoming.addAll(rows);
+        }
+        lastScanNanos = System.nanoTime();
+    }
+
+    private synchronized List<MaintenanceDue> pollDue(LocalDate today) {
+        List<MaintenanceDue> cameDue = new ArrayList<>();
+        while (!upcoming.isEmpty() && !upcoming.peek().nextServiceDate().isAfter(today)) {
+            cameDue.add(upcoming.poll());
+        }
+        due.addAll(cameDue);
+        return cameDue;
+    }
+
+    // One window per vehicle, each in its own transaction so a vehicle booked today only skips itself.
+    // A vehicle already inside a window needs none; its due entry stays until a newer record exists.
+    private int bookWindows(List<MaintenanceDue> services, LocalDate today) {
+        Map<Long, MaintenanceDue> byVehicle = new LinkedHashMap<>();
+        services.forEach(m -> byVehicle.putIfAbsent(m.vehicleId(), m));
+        Set<Long> inWindow = new HashSet<>(maintenanceRepo.findVehicleIdsInWindow(byVehicle.keySet(), today));
+
+        int booked = 0;
+        for (MaintenanceDue m : byVehicle.values()) {
+            if (inWindow.contains(m.vehicleId())) {
+                continue;
+            }
+            Vehicle vehicle = new Vehicle();
+            vehicle.setVehicleId(m.vehicleId());
+            Maintenance window = new Maintenance();
+            window.setVehicle(vehicle);
+            window.setMaintenanceDate(today);
+            window.setMaintenanceEndDate(today.plusDays(windowDays - 1));
+            window.setDescription("Scheduled service (due " + m.nextServiceDate() + ")");
+            try {
+                maintenanceService.scheduleMaintenance(window);
+                booked++;
+            } catch (IllegalStateException e) {
+                log.debug("Vehicle {} is booked, service due {} postponed", m.vehicleId(), m.nextServiceDate());
+            }
+        }
+        return booked;
+    }
+
+    // Windows booked ahead start, and windows end, without anything being written at that moment
+    private void syncStatuses(LocalDate today) {
+        moveStatus(vehicleRepo.findAvailableInMaintenanceWindow(today),
+                Vehicle.AvailabilityStatus.Available, Vehicle.AvailabilityStatus.Maintenance);
+        moveStatus(vehicleRepo.findInMaintenanceAfterWindow(today),
+                Vehicle.AvailabilityStatus.Maintenance, Vehicle.AvailabilityStatus.Available);
+    }
+
+    // One short transaction per batch; the status predicate makes repeated runs harmless
+    private void moveStatus(List<Long> ids, Vehicle.AvailabilityStatus from, Vehicle.AvailabilityStatus to) {
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            List<Long> batch = ids.subList(start, Math.min(start + batchSize, ids.size()));
+            tx.executeWithoutResult(status -> {
+                if (vehicleRepo.updateAvailabilityStatus(batch, from, to) > 0) {
+                    events.publishEvent(new VehicleChangedEvent(batch));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.vehiclerental.scheduler;
+
+import com.vehiclerental.repository.PaymentRepository;
+import com.vehiclerental.service.RevenueRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Approves online payments that have been pending for longer than
+ * payment.auto-approve.after-days (replaces the MySQL event).
+ *
+ * Rows are scanned in (created_at, payment_id) order in fixed-size chunks,
+ * and each chunk is approved by one bulk UPDATE in its own short transaction.
+ * Approved rows drop out of the predicate, so a run interrupted by a crash
+ * simply continues where it stopped on the next run.
+ */
+@Component
+public class PaymentAutoApprovalJob {
+    private static final Logger log = LoggerFactory.getLogger(PaymentAutoApprovalJob.class);
+    private static final LocalDateTime SCAN_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final PaymentRepository paymentRepo;
+    private final TransactionTemplate tx;
+    private final RevenueRollupService rollups;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int chunkSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile RunStats lastRun;
+
+    public record RunStats(LocalDateTime startedAt, long scanned, long updated, long durationMillis) {}
+
+    public PaymentAutoApprovalJob(PaymentRepository paymentRepo, TransactionTemplate tx,
+                                  RevenueRollupService rollups,
+                                  @Value("${payment.auto-approve.enabled:true}") boolean enabled,
+                                  @Value("${payment.auto-approve.after-days:6}") int afterDays,
+                                  @Value("${payment.auto-approve.chunk-size:500}") int chunkSize) {
+        this.paymentRepo = paymentRepo;
+        this.tx = tx;
+        this.rollups = rollups;
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${payment.auto-approve.cron:0 */15 * * * *}")
+    public void run() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastRun = approvePending();
+            log.info("Payment auto-approval: scanned={} updated={} durationMs={}",
+                    lastRun.scanned(), lastRun.updated(), lastRun.durationMillis());
+        } catch (RuntimeException e) {
+            log.error("Payment auto-approval run failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public RunStats getLastRun() {
+        return lastRun;
+    }
+
+    private RunStats approvePending() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        LocalDateTime cutoff = startedAt.minusDays(afterDays);
+        LocalDate today = startedAt.toLocalDate();
+
+        LocalDateTime afterCreatedAt = SCAN_START;
+        long afterId = 0L;
+        long scanned = 0;
+        long updated = 0;
+
+        while (true) {
+            List<Object[]> chunk = paymentRepo.findPendingOnlineChunk(
+                    cutoff, afterCreatedAt, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            List<Long> ids = new ArrayList<>(chunk.size());
+            for (Object[] row : chunk) {
+                ids.add((Long) row[0]);
+            }
+            Integer count = tx.execute(status -> {
+                List<Long> locked = paymentRepo.lockPendingIds(ids);
+                if (locked.isEmpty()) {
+                    return 0;
+                }
+                int approved = paymentRepo.approvePendingPayments(locked, today);
+                rollups.paymentsPaid(locked);
+                return approved;
+            });
+
+            scanned += chunk.size();
+            updated += count != null ? count : 0;
+            Object[] last = chunk.get(chunk.size() - 1);
+            afterId = (Long) last[0];
+            afterCreatedAt = (LocalDateTime) last[1];
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        return new RunStats(startedAt, scanned, updated, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,79 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.Dto.LoginPrincipal;
+import com.vehiclerental.Dto.SignupRequest;
+import com.vehiclerental.entity.Customer;
+import com.vehiclerental.entity.User;
+import com.vehiclerental.repository.CustomerRepository;
+import com.vehiclerental.repository.UserRepository;
+import com.vehiclerental.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Service
+public class AuthService {
+
+    private final UserRepository userRepository;
+    private final CustomerRepository customerRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate tx;
+
+    // Short-lived, so repeated logins (and retries) skip the database without serving stale roles for long
+    private final TtlCache<String, LoginPrincipal> principalCache;
+
+    public AuthService(UserRepository userRepository, CustomerRepository customerRepository,
+                       PasswordEncoder passwordEncoder, TransactionTemplate tx,
+                       @Value("${auth.principal-cache.max-size:10000}") int cacheMaxSize,
+                       @Value("${auth.principal-cache.ttl-seconds:60}") long cacheTtlSeconds) {
+        this.userRepository = userRepository;
+        this.customerRepository = customerRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.tx = tx;
+        this.principalCache = new TtlCache<>(cacheMaxSize, Duration.ofSeconds(cacheTtlSeconds));
+    }
+
+    // Null when the username does not exist (misses are not cached)
+    public LoginPrincipal findLoginPrincipal(String username) {
+        if (username == null) {
+            return null;
+        }
+        return principalCache.get(username, k -> userRepository.findLoginPrincipals(k).stream()
+                .findFirst()
+                .orElse(null));
+    }
+
+    /* Creates the user (and customer profile) in one transaction. A taken username is
+       detected by the unique constraint on users.username and surfaces as
+       DataIntegrityViolationException, so no existence check is needed */
+    public User signup(SignupRequest request) {
+        // Hash before the transaction starts so no connection is held during BCrypt
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+
+        User saved = tx.execute(status -> {
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setPassword(passwordHash);
+            user.setRole(request.getRole() != null ? request.getRole() : "USER");
+            User u = userRepository.saveAndFlush(user);
+
+            if ("CUSTOMER".equalsIgnoreCase(request.getRole())) {
+                Customer customer = new Customer();
+                customer.setFullName(request.getFullName());
+                customer.setNicPassportNo(request.getNicPassportNo());
+                customer.setPhoneNo(request.getPhoneNo());
+                customer.setEmail(request.getEmail());
+                customer.setAddress(request.getAddress());
+                customer.setLicenseNo(request.getLicenseNo());
+                customer.setUsername(request.getUsername()); // link to User table
+                customerRepository.save(customer);
+            }
+            return u;
+        });
+        principalCache.invalidate(request.getUsername());
+        return saved;
+    }
+}
@@ -3,6 +3,7 @@ package com.vehiclerental.service;
 import com.vehiclerental.entity.BankAccount;
 import com.vehiclerental.repository.BankAccountRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Service
@@ -14,7 +15,10 @@ public class BankAccountService {
         this.repo = repo;
     }
 
+    @Transactional(readOnly = true)
     public List<BankAccount> getAll() { return repo.findAll(); }
+
+    @Transactional(readOnly = true)
     public List<BankAccount> getActive() { return repo.findByIsActiveTrue(); }
 
     public BankAccount getById(Long id) {
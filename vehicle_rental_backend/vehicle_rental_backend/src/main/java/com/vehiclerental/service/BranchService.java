@@ -2,23 +2,29 @@ package com.vehiclerental.service;
 
 
 import com.vehiclerental.entity.Branch;
+import com.vehiclerental.event.BranchChangedEvent;
 import com.vehiclerental.repository.BranchRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class BranchService {
     private final BranchRepository branchRepo;
+    private final ApplicationEventPublisher events;
 
-    public BranchService(BranchRepository branchRepo) {
+    public BranchService(BranchRepository branchRepo, ApplicationEventPublisher events) {
         this.branchRepo = branchRepo;
+        this.events = events;
     }
 
     public Branch createBranch(Branch branch) {
         return branchRepo.save(branch);
     }
 
+    @Transactional(readOnly = true)
     public List<Branch> getAllBranches() {
         return branchRepo.findAll();
     }
@@ -33,10 +39,13 @@ public class BranchService {
         existing.setBranchName(updatedBranch.getBranchName());
         existing.setLocation(updatedBranch.getLocation());
         existing.setContactNo(updatedBranch.getContactNo());
-        return branchRepo.save(existing);
+        Branch saved = branchRepo.save(existing);
+        events.publishEvent(new BranchChangedEvent(id));
+        return saved;
     }
 
     public void deleteBranch(Long id) {
         branchRepo.deleteById(id);
+        events.publishEvent(new BranchChangedEvent(id));
     }
 }
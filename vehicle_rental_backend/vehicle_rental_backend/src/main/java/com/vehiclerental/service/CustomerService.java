@@ -3,6 +3,7 @@ package com.vehiclerental.service;
 import com.vehiclerental.entity.Customer;
 import com.vehiclerental.repository.CustomerRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,6 +19,7 @@ public class CustomerService {
         return customerRepo.save(customer);
     }
 
+    @Transactional(readOnly = true)
     public List<Customer> getAllCustomers() {
         return customerRepo.findAll();
     }
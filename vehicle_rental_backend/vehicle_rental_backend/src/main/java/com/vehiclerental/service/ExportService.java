@@ -0,0 +1,157 @@
+package com.vehiclerental.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehiclerental.entity.Payment;
+import com.vehiclerental.entity.Rental;
+import com.vehiclerental.repository.PaymentRepository;
+import com.vehiclerental.repository.RentalRepository;
+import com.vehiclerental.util.CsvUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes rentals and payments straight from a JDBC cursor to the response.
+ * Rows are never collected into a list and the persistence context is cleared
+ * periodically, so memory stays flat regardless of the number of rows.
+ */
+@Service
+public class ExportService {
+    private static final int CLEAR_EVERY = 1000;
+
+    private static final String[] RENTAL_COLUMNS = {
+            "rentalId", "customerId", "customerName", "vehicleId", "registrationNo",
+            "staffId", "rentalDate", "returnDate", "totalAmount", "rentalStatus"
+    };
+
+    private static final String[] PAYMENT_COLUMNS = {
+            "paymentId", "rentalId", "paymentDate", "createdAt", "paymentMethod",
+            "amount", "paymentStatus", "transactionId"
+    };
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() { return mediaType; }
+        public String getExtension() { return extension; }
+
+        public static Format from(String value) {
+            for (Format f : values()) {
+                if (f.extension.equalsIgnoreCase(value)) {
+                    return f;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final RentalRepository rentalRepo;
+    private final PaymentRepository paymentRepo;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(RentalRepository rentalRepo, PaymentRepository paymentRepo, ObjectMapper objectMapper) {
+        this.rentalRepo = rentalRepo;
+        this.paymentRepo = paymentRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportRentals(Format format, OutputStream out) throws IOException {
+        try (Stream<Rental> rentals = rentalRepo.streamAll()) {
+            write(format, RENTAL_COLUMNS, rentals.iterator(), this::rentalRow, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPayments(Format format, OutputStream out) throws IOException {
+        try (Stream<Payment> payments = paymentRepo.streamAll()) {
+            write(format, PAYMENT_COLUMNS, payments.iterator(), this::paymentRow, out);
+        }
+    }
+
+    private <T> void write(Format format, String[] columns, Iterator<T> rows,
+                           Function<T, Object[]> toRow, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+
+        int count = 0;
+        while (rows.hasNext()) {
+            Object[] values = toRow.apply(rows.next());
+            if (format == Format.CSV) {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) writer.write(',');
+                    writer.write(CsvUtils.escape(values[i]));
+                }
+            } else {
+                Map<String, Object> json = new LinkedHashMap<>();
+                for (int i = 0; i < columns.length; i++) {
+                    json.put(columns[i], values[i]);
+                }
+                writer.write(objectMapper.writeValueAsString(json));
+            }
+            writer.write('\n');
+
+            if (++count % CLEAR_EVERY == 0) {
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+    }
+
+    private Object[] rentalRow(Rental r) {
+        return new Object[] {
+                r.getRentalId(),
+                r.getCustomer() != null ? r.getCustomer().getCustomerId() : null,
+                r.getCustomer() != null ? r.getCustomer().getFullName() : null,
+                r.getVehicle() != null ? r.getVehicle().getVehicleId() : null,
+                r.getVehicle() != null ? r.getVehicle().getRegistrationNo() : null,
+                r.getStaff() != null ? r.getStaff().getStaffId() : null,
+                r.getRentalDate(),
+                r.getReturnDate(),
+                r.getTotalAmount(),
+                r.getRentalStatus()
+        };
+    }
+
+    private Object[] paymentRow(Payment p) {
+        return new Object[] {
+                p.getPaymentId(),
+                p.getRental() != null ? p.getRental().getRentalId() : null,
+                p.getPaymentDate(),
+                p.getCreatedAt(),
+                p.getPaymentMethod(),
+                p.getAmount(),
+                p.getPaymentStatus(),
+                p.getTransactionId()
+        };
+    }
+}
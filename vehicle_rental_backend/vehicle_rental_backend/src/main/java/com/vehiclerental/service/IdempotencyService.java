@@ -0,0 +1,62 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.entity.IdempotencyRecord;
+import com.vehiclerental.repository.IdempotencyRecordRepository;
+import com.vehiclerental.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Completed responses keyed by caller-scoped Idempotency-Key, with the hash
+ * of the request body they answered. Lookups hit a bounded
+ * in-memory cache first and the idempotency_key table second; keys whose
+ * first request is still running are tracked so a parallel retry is refused
+ * instead of executing twice.
+ */
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository repo;
+    private final TtlCache<String, IdempotencyRecord> cache;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Duration ttl;
+
+    public IdempotencyService(IdempotencyRecordRepository repo,
+                              @Value("${idempotency.cache.max-size:10000}") int maxSize,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours) {
+        this.repo = repo;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cache = new TtlCache<>(maxSize, ttl);
+    }
+
+    public IdempotencyRecord find(String key) {
+        return cache.get(key, k -> repo.findById(k)
+                .filter(r -> r.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .orElse(null));
+    }
+
+    // False if a request with this key is already being processed
+    public boolean begin(String key) {
+        return inFlight.add(key);
+    }
+
+    public void complete(String key, String requestHash, int status, String contentType, String body) {
+        IdempotencyRecord record = repo.save(new IdempotencyRecord(key, requestHash, status, contentType, body));
+        cache.put(key, record);
+    }
+
+    public void release(String key) {
+        inFlight.remove(key);
+    }
+
+    @Scheduled(cron = "${idempotency.cleanup-cron:0 0 * * * *}")
+    public void purgeExpired() {
+        repo.deleteOlderThan(LocalDateTime.now().minus(ttl));
+    }
+}
@@ -0,0 +1,70 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.util.TokenBucketLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-username and per-client-IP token buckets for the login endpoint. A
+ * request is refused before any database or BCrypt work when either bucket
+ * is empty.
+ */
+@Service
+public class LoginThrottle {
+
+    private final TokenBucketLimiter perUser;
+    private final TokenBucketLimiter perIp;
+    private final LongAdder throttledByUser = new LongAdder();
+    private final LongAdder throttledByIp = new LongAdder();
+
+    public LoginThrottle(@Value("${auth.login.per-user.capacity:5}") int userCapacity,
+                         @Value("${auth.login.per-user.refill-seconds:12}") long userRefillSeconds,
+                         @Value("${auth.login.per-ip.capacity:30}") int ipCapacity,
+                         @Value("${auth.login.per-ip.refill-seconds:2}") long ipRefillSeconds) {
+        this.perUser = new TokenBucketLimiter(userCapacity, Duration.ofSeconds(userRefillSeconds));
+        this.perIp = new TokenBucketLimiter(ipCapacity, Duration.ofSeconds(ipRefillSeconds));
+    }
+
+    /**
+     * @return 0 when the attempt may proceed, otherwise the seconds to wait
+     */
+    public long tryAcquire(String username, String clientIp) {
+        long wait = perIp.tryAcquire(clientIp == null ? "" : clientIp);
+        if (wait > 0) {
+            throttledByIp.increment();
+            return toSeconds(wait);
+        }
+        wait = perUser.tryAcquire(username == null ? "" : username.trim().toLowerCase(Locale.ROOT));
+        if (wait > 0) {
+            throttledByUser.increment();
+            return toSeconds(wait);
+        }
+        return 0;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        perUser.evictIdle();
+        perIp.evictIdle();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("throttledByUser", throttledByUser.sum());
+        stats.put("throttledByIp", throttledByIp.sum());
+        stats.put("trackedUsers", perUser.size());
+        stats.put("trackedIps", perIp.size());
+        return stats;
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
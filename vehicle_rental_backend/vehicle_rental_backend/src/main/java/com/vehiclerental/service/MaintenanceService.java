@@ -1,24 +1,177 @@
     package com.vehiclerental.service;
 
 
+    import com.vehiclerental.Dto.BlockedInterval;
+    import com.vehiclerental.Dto.MaintenanceDue;
     import com.vehiclerental.entity.Maintenance;
+    import com.vehiclerental.entity.Vehicle;
+    import com.vehiclerental.event.VehicleChangedEvent;
     import com.vehiclerental.repository.MaintenanceRepository;
+    import com.vehiclerental.repository.RentalRepository;
+    import com.vehiclerental.repository.VehicleRepository;
+    import com.vehiclerental.scheduler.MaintenanceDueScheduler;
+    import com.vehiclerental.util.BatchInserts;
+    import org.springframework.context.ApplicationEventPublisher;
+    import org.springframework.jdbc.core.JdbcTemplate;
     import org.springframework.stereotype.Service;
+    import org.springframework.transaction.annotation.Transactional;
 
+    import java.time.LocalDate;
     import java.util.List;
+    import java.util.Map;
+    import java.util.Set;
+    import java.util.TreeSet;
+    import java.util.function.Function;
+    import java.util.stream.Collectors;
 
     @Service
     public class MaintenanceService {
+        public static final int MAX_BULK_SIZE = 10000;
+
         private final MaintenanceRepository maintenanceRepo;
+        private final VehicleRepository vehicleRepo;
+        private final RentalRepository rentalRepo;
+        private final ApplicationEventPublisher events;
+        private final MaintenanceDueScheduler dueScheduler;
+        private final JdbcTemplate jdbc;
+
+        private static final String INSERT_SQL = "INSERT INTO maintenance (vehicle_id, maintenance_date, " +
+                "maintenance_end_date, description, cost, next_service_date) VALUES (?, ?, ?, ?, ?, ?)";
+        private static final int INSERT_CHUNK_SIZE = 1000;
 
-        public MaintenanceService(MaintenanceRepository maintenanceRepo) {
+        public MaintenanceService(MaintenanceRepository maintenanceRepo, VehicleRepository vehicleRepo,
+                                  RentalRepository rentalRepo, ApplicationEventPublisher events,
+                                  MaintenanceDueScheduler dueScheduler, JdbcTemplate jdbc) {
             this.maintenanceRepo = maintenanceRepo;
+            this.vehicleRepo = vehicleRepo;
+            this.rentalRepo = rentalRepo;
+            this.events = events;
+            this.dueScheduler = dueScheduler;
+            this.jdbc = jdbc;
+        }
+
+        // Books the vehicle out for [maintenanceDate, maintenanceEndDate] (default: today only).
+        // The vehicle row is locked like a booking, so a rental for the same dates cannot slip in,
+        // and it is switched to Maintenance in the same transaction if the window covers today.
+        @Transactional
+        public Maintenance scheduleMaintenance(Maintenance maintenance) {
+            if (maintenance.getVehicle() == null || maintenance.getVehicle().getVehicleId() == null) {
+                throw new IllegalArgumentException("Vehicle is required");
+            }
+            if (maintenance.getMaintenanceDate() == null) {
+                maintenance.setMaintenanceDate(LocalDate.now());
+            }
+            normalizeWindow(maintenance);
+
+            Vehicle vehicle = vehicleRepo.findByIdForUpdate(maintenance.getVehicle().getVehicleId())
+                    .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
+            if (rentalRepo.existsOverlappingRental(vehicle.getVehicleId(),
+                    maintenance.getMaintenanceDate(), maintenance.getMaintenanceEndDate())) {
+                throw new IllegalStateException("Vehicle is booked during the maintenance window");
+            }
+
+            if (coversToday(maintenance)) {
+                vehicle.setAvailabilityStatus(Vehicle.AvailabilityStatus.Maintenance);
+            }
+            maintenance.setMaintenanceId(null);
+            maintenance.setVehicle(vehicle);
+            Maintenance saved = maintenanceRepo.save(maintenance);
+            events.publishEvent(VehicleChangedEvent.of(vehicle.getVehicleId()));
+            dueScheduler.requestRescan();
+            return saved;
         }
 
-        public Maintenance createMaintenance(Maintenance maintenance) {
-            return maintenanceRepo.save(maintenance);
+        // Inserts all records as multi-row JDBC batches; vehicles whose window covers today move to Maintenance,
+        // like the single create endpoint does per record. Windows ending before today are service
+        // history and block nothing; the others are checked in memory against the locked vehicles' rentals
+        @Transactional
+        public List<Maintenance> createMaintenances(List<Maintenance> records) {
+            if (records == null || records.isEmpty()) {
+                throw new IllegalArgumentException("No maintenance records given");
+            }
+            if (records.size() > MAX_BULK_SIZE) {
+                throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " maintenance records per request");
+            }
+
+            Set<Long> vehicleIds = new TreeSet<>();
+            for (int i = 0; i < records.size(); i++) {
+                Maintenance m = records.get(i);
+                if (m.getVehicle() == null || m.getVehicle().getVehicleId() == null) {
+                    throw new IllegalArgumentException("Maintenance #" + i + ": vehicle is required");
+                }
+                if (m.getMaintenanceDate() == null) {
+                    m.setMaintenanceDate(LocalDate.now());
+                }
+                if (m.getMaintenanceEndDate() != null && m.getMaintenanceEndDate().isBefore(m.getMaintenanceDate())) {
+                    throw new IllegalArgumentException("Maintenance #" + i + ": invalid maintenance period");
+                }
+                normalizeWindow(m);
+                vehicleIds.add(m.getVehicle().getVehicleId());
+            }
+
+            Map<Long, Vehicle> vehicles = vehicleRepo.findAllByIdForUpdate(vehicleIds).stream()
+                    .collect(Collectors.toMap(Vehicle::getVehicleId, Function.identity()));
+            Map<Long, List<BlockedInterval>> rentals = upcomingRentals(records);
+            for (int i = 0; i < records.size(); i++) {
+                Maintenance m = records.get(i);
+                Vehicle v = vehicles.get(m.getVehicle().getVehicleId());
+                if (v == null) {
+                    throw new IllegalArgumentException("Maintenance #" + i + ": vehicle not found");
+                }
+                for (BlockedInterval r : rentals.getOrDefault(v.getVehicleId(), List.of())) {
+                    if (!m.getMaintenanceDate().isAfter(r.endDate())
+                            && !m.getMaintenanceEndDate().isBefore(r.startDate())) {
+                        throw new IllegalStateException("Maintenance #" + i + ": vehicle "
+                                + v.getVehicleId() + " is booked during the maintenance window");
+                    }
+                }
+                m.setMaintenanceId(null);
+                m.setVehicle(v);
+                // Dirty vehicles are flushed as one batch of updates
+                if (coversToday(m)) {
+                    v.setAvailabilityStatus(Vehicle.AvailabilityStatus.Maintenance);
+                }
+            }
+
+            List<Long> ids = BatchInserts.insert(jdbc, INSERT_SQL, records, INSERT_CHUNK_SIZE, (ps, m) -> {
+                ps.setLong(1, m.getVehicle().getVehicleId());
+                ps.setObject(2, m.getMaintenanceDate());
+                ps.setObject(3, m.getMaintenanceEndDate());
+                ps.setString(4, m.getDescription());
+                ps.setObject(5, m.getCost());
+                ps.setObject(6, m.getNextServiceDate());
+            });
+            for (int i = 0; i < records.size(); i++) {
+                records.get(i).setMaintenanceId(ids.get(i));
+            }
+            events.publishEvent(new VehicleChangedEvent(vehicleIds));
+            dueScheduler.requestRescan();
+            return records;
         }
 
+        // Rentals overlapping the windows that end today or later, per vehicle, in one statement
+        private Map<Long, List<BlockedInterval>> upcomingRentals(List<Maintenance> records) {
+            LocalDate today = LocalDate.now();
+            Set<Long> vehicleIds = new TreeSet<>();
+            LocalDate from = null;
+            LocalDate to = null;
+            for (Maintenance m : records) {
+                if (m.getMaintenanceEndDate().isBefore(today)) {
+                    continue;
+                }
+                vehicleIds.add(m.getVehicle().getVehicleId());
+                from = from == null || m.getMaintenanceDate().isBefore(from) ? m.getMaintenanceDate() : from;
+                to = to == null || m.getMaintenanceEndDate().isAfter(to) ? m.getMaintenanceEndDate() : to;
+            }
+            if (vehicleIds.isEmpty()) {
+                return Map.of();
+            }
+            return rentalRepo.findBlockedIntervals(vehicleIds, from, to).stream()
+                    .filter(b -> !b.maintenance())
+                    .collect(Collectors.groupingBy(BlockedInterval::vehicleId));
+        }
+
+        @Transactional(readOnly = true)
         public List<Maintenance> getAllMaintenanceRecords() {
             return maintenanceRepo.findAll();
         }
@@ -28,17 +181,60 @@
                     .orElseThrow(() -> new IllegalArgumentException("Maintenance record not found"));
         }
 
+        // Same rules as scheduleMaintenance: the vehicle is locked and the edited window may not
+        // move onto booked dates (the record itself is not a rental, so it never conflicts with itself)
+        @Transactional
         public Maintenance updateMaintenance(Long id, Maintenance updated) {
             Maintenance existing = getMaintenanceById(id);
-            existing.setMaintenanceDate(updated.getMaintenanceDate());
+            Vehicle vehicle = vehicleRepo.findByIdForUpdate(existing.getVehicle().getVehicleId())
+                    .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
+
+            if (updated.getMaintenanceDate() != null) {
+                existing.setMaintenanceDate(updated.getMaintenanceDate());
+            }
+            existing.setMaintenanceEndDate(updated.getMaintenanceEndDate());
+            normalizeWindow(existing);
+            if (rentalRepo.existsOverlappingRental(vehicle.getVehicleId(),
+                    existing.getMaintenanceDate(), existing.getMaintenanceEndDate())) {
+                throw new IllegalStateException("Vehicle is booked during the maintenance window");
+            }
+
             existing.setDescription(updated.getDescription());
             existing.setCost(updated.getCost());
             existing.setNextServiceDate(updated.getNextServiceDate());
-            return maintenanceRepo.save(existing);
+            if (coversToday(existing)) {
+                vehicle.setAvailabilityStatus(Vehicle.AvailabilityStatus.Maintenance);
+            }
+            Maintenance saved = maintenanceRepo.save(existing);
+            events.publishEvent(VehicleChangedEvent.of(vehicle.getVehicleId()));
+            dueScheduler.requestRescan();
+            return saved;
         }
 
         public void deleteMaintenance(Long id) {
             maintenanceRepo.deleteById(id);
+            dueScheduler.requestRescan();
+        }
+
+        public List<MaintenanceDue> getDueMaintenance(Integer days) {
+            return dueScheduler.getDue(days);
+        }
+
+        // A window without an end date covers its start day only
+        private static void normalizeWindow(Maintenance m) {
+            if (m.getMaintenanceDate() == null) {
+                return;
+            }
+            if (m.getMaintenanceEndDate() == null) {
+                m.setMaintenanceEndDate(m.getMaintenanceDate());
+            } else if (m.getMaintenanceEndDate().isBefore(m.getMaintenanceDate())) {
+                throw new IllegalArgumentException("Invalid maintenance period");
+            }
+        }
+
+        private static boolean coversToday(Maintenance m) {
+            LocalDate today = LocalDate.now();
+            return !today.isBefore(m.getMaintenanceDate()) && !today.isAfter(m.getMaintenanceEndDate());
         }
     }
 
@@ -10,11 +10,14 @@ import java.util.List;
 public class PaymentService {
 
     private final PaymentRepository repo;
+    private final RevenueRollupService rollups;
 
-    public PaymentService(PaymentRepository repo) {
+    public PaymentService(PaymentRepository repo, RevenueRollupService rollups) {
         this.repo = repo;
+        this.rollups = rollups;
     }
 
+    @Transactional(readOnly = true)
     public List<Payment> getAll() { return repo.findAll(); }
 
     public Payment getById(Long id) {
@@ -24,29 +27,38 @@ public class PaymentService {
 
     @Transactional
     public Payment create(Payment p) {
-        return repo.save(p);
+        Payment saved = repo.save(p);
+        rollups.paymentChanged(null, rollups.snapshot(saved));
+        return saved;
     }
 
     @Transactional
     public Payment update(Long id, Payment dto) {
         Payment p = getById(id);
+        RevenueRollupService.PaymentFacts before = rollups.snapshot(p);
         p.setAmount(dto.getAmount());
         p.setPaymentMethod(dto.getPaymentMethod());
         p.setPaymentDate(dto.getPaymentDate());
         p.setPaymentStatus(dto.getPaymentStatus());
         p.setTransactionId(dto.getTransactionId());
-        p.setSlipFileName(dto.getSlipFileName());
+        // The slip file name and its hash (the download ETag) are set only when a slip is uploaded, never here
         p.setPaymentDetails(dto.getPaymentDetails());
         p.setAdminNotes(dto.getAdminNotes());
-        return repo.save(p);
+        Payment saved = repo.save(p);
+        rollups.paymentChanged(before, rollups.snapshot(saved));
+        return saved;
     }
 
     @Transactional
     public void delete(Long id) {
-        repo.deleteById(id);
+        repo.findById(id).ifPresent(p -> {
+            rollups.paymentChanged(rollups.snapshot(p), null);
+            repo.delete(p);
+        });
     }
 
-    /* Called by MySQL event through procedure */
+    /* Pending online payments; auto-approval itself runs in PaymentAutoApprovalJob */
+    @Transactional(readOnly = true)
     public List<Payment> getPendingOnlinePayments() {
         return repo.findPendingOnlinePayments();
     }
@@ -0,0 +1,206 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.Dto.ReconciliationSummary;
+import com.vehiclerental.entity.Payment;
+import com.vehiclerental.repository.PaymentRepository;
+import com.vehiclerental.util.CsvUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles a bank statement (CSV with a header row containing a transaction
+ * id column and an amount column) against the payment table.
+ *
+ * Payments are indexed by transaction id once per import, the statement is
+ * read line by line, and matched payments are flipped to Paid with JDBC batch
+ * updates committed in chunks, so the statement is never held in memory.
+ */
+@Service
+public class ReconciliationService {
+    private static final Set<String> TRANSACTION_COLUMNS = Set.of("transactionid", "txnid", "reference");
+    private static final String AMOUNT_COLUMN = "amount";
+    private static final double AMOUNT_TOLERANCE = 0.005;
+    private static final int MAX_ISSUES = 100;
+
+    private static final String MARK_PAID_SQL =
+            "UPDATE payment SET payment_status = 'Paid', payment_date = COALESCE(payment_date, ?) " +
+            "WHERE payment_id = ? AND payment_status <> 'Paid'";
+
+    private final PaymentRepository paymentRepo;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final RevenueRollupService rollups;
+    private final int batchSize;
+
+    // Index entry; paymentId == null marks a transaction id shared by several payments
+    private record Indexed(Long paymentId, double amount, boolean paid) {}
+
+    public ReconciliationService(PaymentRepository paymentRepo, JdbcTemplate jdbc, TransactionTemplate tx,
+                                 RevenueRollupService rollups, @Value("${payment.reconciliation.batch-size:1000}") int batchSize) {
+        this.paymentRepo = paymentRepo;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.rollups = rollups;
+        this.batchSize = batchSize;
+    }
+
+    public ReconciliationSummary reconcile(InputStream statement) throws IOException {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(statement, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Statement is empty");
+        }
+        int[] columns = resolveColumns(CsvUtils.parseLine(stripBom(header)));
+        int txColumn = columns[0];
+        int amountColumn = columns[1];
+
+        Map<String, Indexed> index = buildIndex();
+        Set<String> seen = new HashSet<>();
+        List<Long> pending = new ArrayList<>(batchSize);
+        List<String> issues = new ArrayList<>();
+
+        long total = 0, matched = 0, alreadyPaid = 0, unmatched = 0, conflicting = 0, invalid = 0;
+        long lineNo = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            total++;
+
+            List<String> fields = CsvUtils.parseLine(line);
+            String txId = field(fields, txColumn);
+            Double amount = parseAmount(field(fields, amountColumn));
+            if (txId.isEmpty() || amount == null) {
+                invalid++;
+                addIssue(issues, lineNo, "invalid row");
+                continue;
+            }
+            if (!seen.add(txId)) {
+                conflicting++;
+                addIssue(issues, lineNo, "duplicate transaction id " + txId);
+                continue;
+            }
+
+            Indexed payment = index.get(txId);
+            if (payment == null) {
+                unmatched++;
+                addIssue(issues, lineNo, "no payment for transaction id " + txId);
+            } else if (payment.paymentId() == null) {
+                conflicting++;
+                addIssue(issues, lineNo, "transaction id " + txId + " belongs to several payments");
+            } else if (Math.abs(payment.amount() - amount) > AMOUNT_TOLERANCE) {
+                conflicting++;
+                addIssue(issues, lineNo, "amount " + amount + " differs from payment #"
+                        + payment.paymentId() + " (" + payment.amount() + ")");
+            } else if (payment.paid()) {
+                alreadyPaid++;
+            } else {
+                pending.add(payment.paymentId());
+                if (pending.size() >= batchSize) {
+                    matched += markPaid(pending, today);
+                    pending.clear();
+                }
+            }
+        }
+        matched += markPaid(pending, today);
+
+        return new ReconciliationSummary(total, matched, alreadyPaid, unmatched, conflicting, invalid,
+                (System.nanoTime() - start) / 1_000_000, issues);
+    }
+
+    private Map<String, Indexed> buildIndex() {
+        Map<String, Indexed> index = new HashMap<>();
+        tx.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = paymentRepo.streamTransactionIndex()) {
+                rows.forEach(row -> {
+                    String txId = ((String) row[1]).trim();
+                    Double amount = (Double) row[2];
+                    Indexed entry = new Indexed((Long) row[0], amount != null ? amount : 0.0,
+                            row[3] == Payment.PaymentStatus.Paid);
+                    index.merge(txId, entry, (a, b) -> new Indexed(null, 0.0, false));
+                });
+            }
+        });
+        return index;
+    }
+
+    // One batch per transaction; rows paid meanwhile are locked out and skipped
+    private long markPaid(List<Long> ids, LocalDate today) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Date paymentDate = Date.valueOf(today);
+        Integer updated = tx.execute(status -> {
+            List<Long> unpaid = paymentRepo.lockUnpaidIds(ids);
+            if (unpaid.isEmpty()) {
+                return 0;
+            }
+            jdbc.batchUpdate(MARK_PAID_SQL, unpaid, unpaid.size(), (ps, id) -> {
+                ps.setDate(1, paymentDate);
+                ps.setLong(2, id);
+            });
+            rollups.paymentsPaid(unpaid);
+            return unpaid.size();
+        });
+        return updated != null ? updated : 0;
+    }
+
+    private static int[] resolveColumns(List<String> header) {
+        int txColumn = -1;
+        int amountColumn = -1;
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            if (txColumn < 0 && TRANSACTION_COLUMNS.contains(name)) txColumn = i;
+            if (amountColumn < 0 && AMOUNT_COLUMN.equals(name)) amountColumn = i;
+        }
+        if (txColumn < 0 || amountColumn < 0) {
+            throw new IllegalArgumentException("Statement header must contain transactionId and amount columns");
+        }
+        return new int[]{txColumn, amountColumn};
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column).trim() : "";
+    }
+
+    private static Double parseAmount(String value) {
+        try {
+            return value.isEmpty() ? null : Double.valueOf(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String stripBom(String header) {
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+
+    private static void addIssue(List<String> issues, long lineNo, String message) {
+        if (issues.size() < MAX_ISSUES) {
+            issues.add("line " + lineNo + ": " + message);
+        }
+    }
+}
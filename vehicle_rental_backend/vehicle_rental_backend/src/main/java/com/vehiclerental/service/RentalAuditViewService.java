@@ -1,19 +1,66 @@
 package com.vehiclerental.service;
 
+import com.vehiclerental.entity.RentalAudit;
 import com.vehiclerental.entity.RentalAuditView;
+import com.vehiclerental.repository.RentalAuditRepository;
 import com.vehiclerental.repository.RentalAuditViewRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Service
 public class RentalAuditViewService {
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
 
     private final RentalAuditViewRepository viewRepo;
+    private final RentalAuditRepository auditRepo;
 
-    public RentalAuditViewService(RentalAuditViewRepository viewRepo) {
+    public RentalAuditViewService(RentalAuditViewRepository viewRepo, RentalAuditRepository auditRepo) {
         this.viewRepo = viewRepo;
+        this.auditRepo = auditRepo;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RentalAudit> getAuditPage(Long rentalId, LocalDateTime from, LocalDateTime to,
+                                          String after, Integer limit) {
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("Invalid audit period");
+        }
+        // Without a cursor the page starts just before "to" (exclusive), id 0 excluding every row at "to" itself
+        LocalDateTime beforeAt = to != null ? to : MAX_TIME;
+        long beforeId = 0L;
+        if (after != null && !after.isBlank()) {
+            int sep = after.lastIndexOf('_');
+            try {
+                LocalDateTime cursorAt = LocalDateTime.parse(after.substring(0, sep));
+                if (cursorAt.isBefore(beforeAt)) {
+                    beforeAt = cursorAt;
+                    beforeId = Long.parseLong(after.substring(sep + 1));
+                }
+            } catch (StringIndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+        }
+
+        PageRequest page = PageRequest.of(0, RentalService.pageSize(limit));
+        LocalDateTime start = from != null ? from : MIN_TIME;
+        return rentalId != null
+                ? auditRepo.findRentalPageBefore(rentalId, start, beforeAt, beforeId, page)
+                : auditRepo.findPageBefore(start, beforeAt, beforeId, page);
+    }
+
+    // Cursor of the row a following page continues after: "<changedAt>_<id>"
+    public static String cursorOf(RentalAudit row) {
+        return row.getChangedAt() + "_" + row.getId();
     }
 
+    // Whole view, sorted by MySQL on every call; prefer getAuditPage
+    @Transactional(readOnly = true)
     public List<RentalAuditView> getAllAuditViews() {
         return viewRepo.findAll(); // fetches data from the view
     }
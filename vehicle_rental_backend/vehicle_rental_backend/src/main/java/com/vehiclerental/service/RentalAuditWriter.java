@@ -0,0 +1,252 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.config.JwtAuthenticationFilter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes rental_audit rows from the application (replaces rental_audit_trigger),
+ * recording the authenticated user as changed_by.
+ *
+ * Durability modes (rental.audit.durability):
+ * - commit: the audit rows of a transaction are batch-inserted just before it
+ *   commits, so they are exactly as durable as the rental change itself.
+ * - group: rows are queued after commit in a bounded buffer and a background
+ *   writer batch-inserts them every rental.audit.group-commit-ms. Booking
+ *   transactions do no audit I/O; a crash can lose the last interval.
+ *   A batch that fails (e.g. the database is briefly down) is kept and retried
+ *   with doubling delays; new rows wait in the buffer meanwhile, and only after
+ *   rental.audit.max-retries are its rows dropped and counted as failed.
+ */
+@Service
+public class RentalAuditWriter {
+    private static final Logger log = LoggerFactory.getLogger(RentalAuditWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO rental_audit (rental_id, action, changed_by, changed_at) VALUES (?, ?, ?, ?)";
+
+    public enum Durability { COMMIT, GROUP }
+
+    public record AuditEvent(Long rentalId, String action, String changedBy, LocalDateTime changedAt) {}
+
+    private final JdbcTemplate jdbc;
+    private final Durability durability;
+    private final int batchSize;
+    private final long groupCommitMs;
+    private final int maxRetries;
+    private final long maxBackoffMs;
+    private final BlockingQueue<AuditEvent> buffer;
+    private final ScheduledExecutorService flusher;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+
+    // Owned by the flusher thread: the batch that last failed, and when to try it again
+    private volatile List<AuditEvent> retryBatch = List.of();
+    private int retryAttempts;
+    private long retryAtNanos;
+
+    public RentalAuditWriter(JdbcTemplate jdbc,
+                             @Value("${rental.audit.durability:group}") String durability,
+                             @Value("${rental.audit.group-commit-ms:200}") long groupCommitMs,
+                             @Value("${rental.audit.buffer-capacity:10000}") int bufferCapacity,
+                             @Value("${rental.audit.batch-size:500}") int batchSize,
+                             @Value("${rental.audit.max-retries:8}") int maxRetries,
+                             @Value("${rental.audit.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.jdbc = jdbc;
+        this.durability = Durability.valueOf(durability.trim().toUpperCase(Locale.ROOT));
+        this.batchSize = batchSize;
+        this.groupCommitMs = groupCommitMs;
+        this.maxRetries = maxRetries;
+        this.maxBackoffMs = maxBackoffMs;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rental-audit-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        if (this.durability == Durability.GROUP) {
+            flusher.scheduleWithFixedDelay(this::drain, groupCommitMs, groupCommitMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Called inside the transaction that changed the rental
+    public void record(Long rentalId, String action) {
+        AuditEvent event = new AuditEvent(rentalId, action, currentPrincipal(), LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueueOrWrite(List.of(event));
+            return;
+        }
+        if (durability == Durability.COMMIT) {
+            pendingInTransaction().add(event);
+        } else {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueueOrWrite(List.of(event));
+                }
+            });
+        }
+    }
+
+    // Events of the current transaction, inserted as one batch right before it commits
+    @SuppressWarnings("unchecked")
+    private List<AuditEvent> pendingInTransaction() {
+        List<AuditEvent> pending = (List<AuditEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<AuditEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(events);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RentalAuditWriter.this);
+                }
+            });
+            pending = events;
+        }
+        return pending;
+    }
+
+    private void enqueueOrWrite(List<AuditEvent> events) {
+        if (durability == Durability.COMMIT) {
+            insert(events);
+            return;
+        }
+        for (AuditEvent event : events) {
+            if (!buffer.offer(event)) {
+                // Writer is behind: apply back-pressure instead of losing the audit row
+                overflowed.increment();
+                try {
+                    insert(List.of(event));
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        if (!retryBatch.isEmpty()) {
+            if (System.nanoTime() - retryAtNanos < 0 || !tryInsert(retryBatch)) {
+                return;
+            }
+        }
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            if (!tryInsert(batch)) {
+                return;
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    // False if the batch failed: it is then kept for a later retry, or given up after maxRetries
+    private boolean tryInsert(List<AuditEvent> batch) {
+        try {
+            insert(batch);
+            retryBatch = List.of();
+            retryAttempts = 0;
+            return true;
+        } catch (RuntimeException e) {
+            if (batch != retryBatch) {
+                retryBatch = batch;
+                retryAttempts = 0;
+            }
+            if (retryAttempts >= maxRetries) {
+                failed.add(batch.size());
+                log.error("Rental audit flush failed {} times, dropping {} rows", retryAttempts + 1, batch.size(), e);
+                retryBatch = List.of();
+                retryAttempts = 0;
+                return false;
+            }
+            retryAttempts++;
+            retried.increment();
+            long delayMs = Math.min(maxBackoffMs, groupCommitMs << Math.min(retryAttempts, 20));
+            retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+            log.warn("Rental audit flush of {} rows failed (attempt {}), retrying in {} ms: {}",
+                    batch.size(), retryAttempts, delayMs, e.toString());
+            return false;
+        }
+    }
+
+    private void insert(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(INSERT_SQL, events, batchSize, (ps, e) -> {
+            ps.setObject(1, e.rentalId());
+            ps.setString(2, e.action());
+            ps.setString(3, e.changedBy());
+            ps.setTimestamp(4, Timestamp.valueOf(e.changedAt()));
+        });
+        written.add(events.size());
+    }
+
+    private static String currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth instanceof AnonymousAuthenticationToken || !auth.isAuthenticated()) {
+            return "anonymous";
+        }
+        if (auth.getPrincipal() instanceof JwtAuthenticationFilter.JwtPrincipal principal) {
+            return principal.username();
+        }
+        return auth.getName();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("durability", durability.name().toLowerCase(Locale.ROOT));
+        stats.put("buffered", buffer.size());
+        stats.put("retrying", retryBatch.size());
+        stats.put("retries", retried.sum());
+        stats.put("written", written.sum());
+        stats.put("overflowed", overflowed.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    // Flush what is still buffered before the datasource goes away; one last try for a pending retry
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        retryAtNanos = System.nanoTime();
+        drain();
+        int unwritten = retryBatch.size() + buffer.size();
+        if (unwritten > 0) {
+            failed.add(unwritten);
+            log.error("Rental audit writer stopped with {} unwritten rows", unwritten);
+        }
+    }
+}
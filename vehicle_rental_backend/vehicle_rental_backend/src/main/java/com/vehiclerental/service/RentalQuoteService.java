@@ -0,0 +1,108 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.Dto.RentalQuoteRequest;
+import com.vehiclerental.Dto.RentalQuoteResponse;
+import com.vehiclerental.event.VehicleChangedEvent;
+import com.vehiclerental.repository.VehicleRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Prices many (vehicle, period) tuples at once from cached daily rates.
+ * Rates missing from the cache are loaded with a single IN query per batch;
+ * entries are evicted on every {@link VehicleChangedEvent}. Days are counted like
+ * bookings and CalcRentalAmount: both the rent and the return date are charged.
+ */
+@Service
+public class RentalQuoteService {
+    public static final int MAX_QUOTES_PER_REQUEST = 500;
+
+    private final VehicleRepository vehicleRepo;
+    private final Map<Long, Double> dailyRates = new ConcurrentHashMap<>();
+    // Bumped on every eviction so a load that raced with it is not stored (as in TtlCache)
+    private final AtomicLong generation = new AtomicLong();
+
+    public RentalQuoteService(VehicleRepository vehicleRepo) {
+        this.vehicleRepo = vehicleRepo;
+    }
+
+    public List<RentalQuoteResponse> quote(List<RentalQuoteRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return List.of();
+        }
+        if (requests.size() > MAX_QUOTES_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_QUOTES_PER_REQUEST + " quotes per request");
+        }
+        for (RentalQuoteRequest r : requests) {
+            if (r.getVehicleId() == null || r.getRentDate() == null || r.getReturnDate() == null
+                    || r.getReturnDate().isBefore(r.getRentDate())) {
+                throw new IllegalArgumentException("Each quote needs a vehicleId and a valid rentDate/returnDate");
+            }
+        }
+
+        Map<Long, Double> rates = ratesFor(requests.stream().map(RentalQuoteRequest::getVehicleId).collect(Collectors.toSet()));
+
+        List<RentalQuoteResponse> quotes = new ArrayList<>(requests.size());
+        for (RentalQuoteRequest r : requests) {
+            Double rate = rates.get(r.getVehicleId());
+            if (rate == null) {
+                throw new IllegalArgumentException("Vehicle not found: " + r.getVehicleId());
+            }
+            // [rentDate, returnDate] is inclusive, as for bookings: a same-day return is one day
+            long days = ChronoUnit.DAYS.between(r.getRentDate(), r.getReturnDate()) + 1;
+            quotes.add(new RentalQuoteResponse(r.getVehicleId(), r.getRentDate(), r.getReturnDate(),
+                    days, rate, rate * days));
+        }
+        return quotes;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            event.getVehicleIds().forEach(dailyRates::remove);
+        }
+    }
+
+    // Cached rates plus the missing ones from one IN query; the loaded rates are always used for
+    // this request but only cached when no eviction happened while they were read
+    private Map<Long, Double> ratesFor(Set<Long> vehicleIds) {
+        Map<Long, Double> rates = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : vehicleIds) {
+            Double rate = dailyRates.get(id);
+            if (rate != null) {
+                rates.put(id, rate);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return rates;
+        }
+        long gen = generation.get();
+        Map<Long, Double> loaded = new HashMap<>();
+        for (Object[] row : vehicleRepo.findDailyRates(missing)) {
+            if (row[1] != null) {
+                loaded.put((Long) row[0], (Double) row[1]);
+            }
+        }
+        synchronized (generation) {
+            if (generation.get() == gen) {
+                dailyRates.putAll(loaded);
+            }
+        }
+        rates.putAll(loaded);
+        return rates;
+    }
+}
@@ -1,35 +1,76 @@
 package com.vehiclerental.service;
 
 
+import com.vehiclerental.Dto.BlockedInterval;
 import com.vehiclerental.entity.Customer;
 import com.vehiclerental.entity.Rental;
 import com.vehiclerental.entity.Staff;
 import com.vehiclerental.entity.Vehicle;
+import com.vehiclerental.event.VehicleChangedEvent;
 import com.vehiclerental.repository.CustomerRepository;
 import com.vehiclerental.repository.RentalRepository;
 import com.vehiclerental.repository.StaffRepository;
 import com.vehiclerental.repository.VehicleRepository;
+import com.vehiclerental.util.BatchInserts;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Map;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class RentalService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BULK_SIZE = 10000;
+
     private final RentalRepository rentalRepo;
     private final VehicleRepository vehicleRepo;
     @Autowired
     private CustomerRepository customerRepository;
     @Autowired
     private StaffRepository staffRepository;
+    private final ApplicationEventPublisher events;
+    private final RevenueRollupService rollups;
+    private final RentalAuditWriter audit;
+    private final JdbcTemplate jdbc;
+
+    private static final String INSERT_SQL = "INSERT INTO rental (customer_id, vehicle_id, staff_id, rental_date, " +
+            "return_date, total_amount, rental_status) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int INSERT_CHUNK_SIZE = 1000;
 
-    public RentalService(RentalRepository rentalRepo, VehicleRepository vehicleRepo) {
+    public RentalService(RentalRepository rentalRepo, VehicleRepository vehicleRepo,
+                         ApplicationEventPublisher events, RevenueRollupService rollups,
+                         RentalAuditWriter audit, JdbcTemplate jdbc) {
         this.rentalRepo = rentalRepo;
         this.vehicleRepo = vehicleRepo;
+        this.events = events;
+        this.rollups = rollups;
+        this.audit = audit;
+        this.jdbc = jdbc;
     }
 
+    @Transactional
     public Rental createRental(Rental rental) {
+        if (rental.getVehicle() == null || rental.getVehicle().getVehicleId() == null) {
+            throw new IllegalArgumentException("Vehicle is required");
+        }
+        if (rental.getRentalDate() == null || rental.getReturnDate() == null
+                || rental.getReturnDate().isBefore(rental.getRentalDate())) {
+            throw new IllegalArgumentException("Invalid rental period");
+        }
+
         // Load existing customer and staff from DB
         Customer customer = customerRepository.findById(rental.getCustomer().getCustomerId())
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
@@ -37,38 +78,158 @@ public class RentalService {
         Staff staff = staffRepository.findById(rental.getStaff().getStaffId())
                 .orElseThrow(() -> new RuntimeException("Staff not found"));
 
+        // Lock only this vehicle's row so concurrent bookings and maintenance scheduling for it run
+        // one at a time, then check rentals and maintenance windows through their vehicle/date indexes
+        Vehicle vehicle = vehicleRepo.findByIdForUpdate(rental.getVehicle().getVehicleId())
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
+
+        if (!rentalRepo.findBlockedIntervals(List.of(vehicle.getVehicleId()),
+                rental.getRentalDate(), rental.getReturnDate()).isEmpty()) {
+            throw new IllegalStateException("Vehicle is already booked or in maintenance for the selected dates");
+        }
+
         rental.setCustomer(customer);
         rental.setStaff(staff);
+        rental.setVehicle(vehicle);
 
-        return rentalRepo.save(rental);
+        Rental saved = rentalRepo.save(rental);
+        rollups.rentalChanged(null, rollups.snapshot(saved));
+        audit.record(saved.getRentalId(), "Created with status " + saved.getRentalStatus());
+        return saved;
     }
 
 
 
+    // All-or-nothing bulk booking: validated, locked and overlap-checked in memory,
+    // then inserted as multi-row JDBC batches (ids come back from AUTO_INCREMENT)
+    @Transactional
+    public List<Rental> createRentals(List<Rental> rentals) {
+        if (rentals == null || rentals.isEmpty()) {
+            throw new IllegalArgumentException("No rentals given");
+        }
+        if (rentals.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " rentals per request");
+        }
+
+        Set<Long> vehicleIds = new TreeSet<>();
+        Set<Long> customerIds = new TreeSet<>();
+        Set<Long> staffIds = new TreeSet<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (int i = 0; i < rentals.size(); i++) {
+            Rental r = rentals.get(i);
+            if (r.getVehicle() == null || r.getVehicle().getVehicleId() == null
+                    || r.getCustomer() == null || r.getCustomer().getCustomerId() == null
+                    || r.getStaff() == null || r.getStaff().getStaffId() == null) {
+                throw new IllegalArgumentException("Rental #" + i + ": vehicle, customer and staff are required");
+            }
+            if (r.getRentalDate() == null || r.getReturnDate() == null
+                    || r.getReturnDate().isBefore(r.getRentalDate())) {
+                throw new IllegalArgumentException("Rental #" + i + ": invalid rental period");
+            }
+            vehicleIds.add(r.getVehicle().getVehicleId());
+            customerIds.add(r.getCustomer().getCustomerId());
+            staffIds.add(r.getStaff().getStaffId());
+            from = from == null || r.getRentalDate().isBefore(from) ? r.getRentalDate() : from;
+            to = to == null || r.getReturnDate().isAfter(to) ? r.getReturnDate() : to;
+        }
+
+        Map<Long, Customer> customers = byId(customerRepository.findAllById(customerIds), Customer::getCustomerId);
+        Map<Long, Staff> staff = byId(staffRepository.findAllById(staffIds), Staff::getStaffId);
+        Map<Long, Vehicle> vehicles = byId(vehicleRepo.findAllByIdForUpdate(vehicleIds), Vehicle::getVehicleId);
+
+        // Existing bookings and maintenance windows of the locked vehicles, extended with each accepted rental
+        Map<Long, List<LocalDate[]>> bookings = new HashMap<>();
+        for (BlockedInterval b : rentalRepo.findBlockedIntervals(vehicleIds, from, to)) {
+            bookings.computeIfAbsent(b.vehicleId(), k -> new ArrayList<>())
+                    .add(new LocalDate[]{b.startDate(), b.endDate()});
+        }
+
+        for (int i = 0; i < rentals.size(); i++) {
+            Rental r = rentals.get(i);
+            Vehicle vehicle = vehicles.get(r.getVehicle().getVehicleId());
+            Customer customer = customers.get(r.getCustomer().getCustomerId());
+            Staff s = staff.get(r.getStaff().getStaffId());
+            if (vehicle == null) throw new IllegalArgumentException("Rental #" + i + ": vehicle not found");
+            if (customer == null) throw new IllegalArgumentException("Rental #" + i + ": customer not found");
+            if (s == null) throw new IllegalArgumentException("Rental #" + i + ": staff not found");
+
+            List<LocalDate[]> booked = bookings.computeIfAbsent(vehicle.getVehicleId(), k -> new ArrayList<>());
+            for (LocalDate[] b : booked) {
+                if (!r.getRentalDate().isAfter(b[1]) && !r.getReturnDate().isBefore(b[0])) {
+                    throw new IllegalStateException("Rental #" + i + ": vehicle "
+                            + vehicle.getVehicleId() + " is already booked or in maintenance for the selected dates");
+                }
+            }
+            booked.add(new LocalDate[]{r.getRentalDate(), r.getReturnDate()});
+
+            r.setRentalId(null);
+            r.setVehicle(vehicle);
+            r.setCustomer(customer);
+            r.setStaff(s);
+            if (r.getRentalStatus() == null) {
+                r.setRentalStatus(Rental.RentalStatus.Pending);
+            }
+        }
+
+        List<Long> ids = BatchInserts.insert(jdbc, INSERT_SQL, rentals, INSERT_CHUNK_SIZE, (ps, r) -> {
+            ps.setLong(1, r.getCustomer().getCustomerId());
+            ps.setLong(2, r.getVehicle().getVehicleId());
+            ps.setLong(3, r.getStaff().getStaffId());
+            ps.setObject(4, r.getRentalDate());
+            ps.setObject(5, r.getReturnDate());
+            ps.setObject(6, r.getTotalAmount());
+            ps.setString(7, r.getRentalStatus().name());
+        });
+        for (int i = 0; i < rentals.size(); i++) {
+            rentals.get(i).setRentalId(ids.get(i));
+        }
+        rollups.rentalsCreated(rentals);
+        rentals.forEach(r -> audit.record(r.getRentalId(), "Created with status " + r.getRentalStatus()));
+        return rentals;
+    }
+
+    private static <T> Map<Long, T> byId(Collection<T> entities, Function<T, Long> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
     // Reject rental
+    @Transactional
     public Rental rejectRental(Long id) {
         Rental rental = rentalRepo.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Rental not found"));
+        RevenueRollupService.RentalFacts before = rollups.snapshot(rental);
         rental.setRentalStatus(Rental.RentalStatus.Cancelled);
-        return rentalRepo.save(rental);
+        Rental saved = rentalRepo.save(rental);
+        rollups.rentalChanged(before, rollups.snapshot(saved));
+        auditStatus(saved);
+        publishVehicleChanged(saved);
+        return saved;
     }
 
+    @Transactional
     public Rental completeRental(Long rentalId) {
         Rental r = rentalRepo.findById(rentalId)
                 .orElseThrow(() -> new IllegalArgumentException("Rental not found"));
+        RevenueRollupService.RentalFacts before = rollups.snapshot(r);
         r.setRentalStatus(Rental.RentalStatus.Completed);
         rentalRepo.save(r);
+        rollups.rentalChanged(before, rollups.snapshot(r));
+        auditStatus(r);
 
         Vehicle v = r.getVehicle();
         v.setAvailabilityStatus(Vehicle.AvailabilityStatus.Available);
         vehicleRepo.save(v);
+        publishVehicleChanged(r);
         return r;
     }
 
 
+    @Transactional
     public Rental updateRentalStatus(Long rentalId, boolean approve) {
         Rental rental = rentalRepo.findById(rentalId)
                 .orElseThrow(() -> new RuntimeException("Rental not found"));
+        RevenueRollupService.RentalFacts before = rollups.snapshot(rental);
 
         if (approve) {
             rental.setRentalStatus(Rental.RentalStatus.Completed);
@@ -80,18 +241,39 @@ public class RentalService {
             rental.setRentalStatus(Rental.RentalStatus.Cancelled);
         }
 
-        return rentalRepo.save(rental);
+        Rental saved = rentalRepo.save(rental);
+        rollups.rentalChanged(before, rollups.snapshot(saved));
+        auditStatus(saved);
+        publishVehicleChanged(saved);
+        return saved;
     }
 
 
 
+    @Transactional
     public void deleteRental(Long id) {
-        rentalRepo.deleteById(id);
+        rentalRepo.findById(id).ifPresent(r -> {
+            rollups.rentalChanged(rollups.snapshot(r), null);
+            audit.record(r.getRentalId(), "Deleted");
+            rentalRepo.delete(r);
+        });
     }
 
     // ✅ Add these methods to match your controller
+    @Transactional(readOnly = true)
     public List<Rental> getAllRentals() {
-        return rentalRepo.findAll();
+        return rentalRepo.findAllWithDetails();
+    }
+
+    // Cursor-based page: pass the last rentalId of the previous page as "after"
+    @Transactional(readOnly = true)
+    public List<Rental> getRentalsPage(Long after, Integer limit, Rental.RentalStatus status,
+                                       LocalDate from, LocalDate to) {
+        return rentalRepo.findPageAfter(after == null ? 0L : after, status, from, to, PageRequest.of(0, pageSize(limit)));
+    }
+
+    public static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
     public Rental getRentalById(Long id) {
@@ -100,25 +282,51 @@ public class RentalService {
     }
 
     // Approve rental
+    @Transactional
     public Rental approveRental(Long id) {
         Rental rental = rentalRepo.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Rental not found"));
+        RevenueRollupService.RentalFacts before = rollups.snapshot(rental);
         rental.setRentalStatus(Rental.RentalStatus.Completed);
-        return rentalRepo.save(rental);
+        Rental saved = rentalRepo.save(rental);
+        rollups.rentalChanged(before, rollups.snapshot(saved));
+        auditStatus(saved);
+        publishVehicleChanged(saved);
+        return saved;
     }
 
+    @Transactional
     public Rental updateRentalStatus(Long rentalId, String status) {
         Rental rental = rentalRepo.findById(rentalId)
                 .orElseThrow(() -> new RuntimeException("Rental not found with id: " + rentalId));
+        RevenueRollupService.RentalFacts before = rollups.snapshot(rental);
 
         rental.setRentalStatus(Rental.RentalStatus.valueOf(status));
-        return rentalRepo.save(rental);
+        Rental saved = rentalRepo.save(rental);
+        rollups.rentalChanged(before, rollups.snapshot(saved));
+        auditStatus(saved);
+        publishVehicleChanged(saved);
+        return saved;
+    }
+
+    // Same wording the old rental_audit_trigger wrote
+    private void auditStatus(Rental rental) {
+        audit.record(rental.getRentalId(), "Status changed to " + rental.getRentalStatus());
+    }
+
+    // Status updates also change the vehicle row (here or via update_vehicle_status_after_rental_change)
+    private void publishVehicleChanged(Rental rental) {
+        if (rental.getVehicle() != null) {
+            events.publishEvent(VehicleChangedEvent.of(rental.getVehicle().getVehicleId()));
+        }
     }
 
+    @Transactional(readOnly = true)
     public List<Rental> getRentalsByUser(Long userId) {
         return rentalRepo.findByCustomerCustomerId(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getActiveRentalsView() {
         return rentalRepo.getActiveRentalsFromView();
     }
@@ -0,0 +1,325 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.Dto.RevenueReportRow;
+import com.vehiclerental.entity.Payment;
+import com.vehiclerental.entity.Rental;
+import com.vehiclerental.entity.Vehicle;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps revenue_rollup in step with payment and rental writes.
+ *
+ * Callers snapshot the facts of a payment or rental before and after a change;
+ * the difference is upserted into the row of its (day, branch, vehicle type)
+ * inside the caller's transaction and applied to an in-memory mirror once that
+ * transaction commits. Reports are answered from the mirror, so they touch one
+ * entry per day, branch and vehicle type instead of every payment.
+ *
+ * Rows are bucketed under the vehicle's current branch and type: snapshots carry
+ * them so an add and its later reversal hit the same bucket, and a vehicle that
+ * moves branch or changes type has its totals moved along (vehicleMoved).
+ */
+@Service
+public class RevenueRollupService implements SmartInitializingSingleton {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO revenue_rollup (day, branch_id, vehicle_type, revenue, payment_count, rental_count, booked_amount) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "revenue = revenue + VALUES(revenue), payment_count = payment_count + VALUES(payment_count), " +
+            "rental_count = rental_count + VALUES(rental_count), booked_amount = booked_amount + VALUES(booked_amount)";
+
+    // Paid payments of a set of ids, aggregated per rollup key (used after bulk status flips)
+    private static final String PAID_TOTALS_SQL =
+            "SELECT COALESCE(p.payment_date, DATE(p.created_at)) AS day, COALESCE(v.branch_id, 0) AS branch_id, " +
+            "COALESCE(v.vehicle_type, '') AS vehicle_type, SUM(COALESCE(p.amount, 0)) AS revenue, COUNT(*) AS cnt " +
+            "FROM payment p JOIN rental r ON r.rental_id = p.rental_id JOIN vehicle v ON v.vehicle_id = r.vehicle_id " +
+            "WHERE p.payment_id IN (:ids) AND p.payment_status = 'Paid' GROUP BY 1, 2, 3";
+
+    // Per-day totals of one vehicle, moved between buckets when it changes branch or type
+    private static final String VEHICLE_RENTAL_TOTALS_SQL =
+            "SELECT rental_date AS day, COUNT(*) AS cnt, SUM(COALESCE(total_amount, 0)) AS booked FROM rental " +
+            "WHERE vehicle_id = ? AND rental_status <> 'Cancelled' AND rental_date IS NOT NULL GROUP BY rental_date";
+
+    private static final String VEHICLE_PAID_TOTALS_SQL =
+            "SELECT COALESCE(p.payment_date, DATE(p.created_at)) AS day, SUM(COALESCE(p.amount, 0)) AS revenue, " +
+            "COUNT(*) AS cnt FROM payment p JOIN rental r ON r.rental_id = p.rental_id " +
+            "WHERE r.vehicle_id = ? AND p.payment_status = 'Paid' GROUP BY 1";
+
+    public enum Dimension { DAY, BRANCH, VEHICLETYPE }
+
+    // Facts of a payment that matter to the rollup; captured before and after each write.
+    // branchId is null when the rental's vehicle was not at hand (the bucket is then looked up)
+    public record PaymentFacts(Long rentalId, Long branchId, String vehicleType, LocalDate day,
+                               double amount, boolean paid) {}
+
+    // Facts of a rental that matter to the rollup
+    public record RentalFacts(Long vehicleId, Long branchId, String vehicleType, LocalDate day,
+                              double amount, boolean counted) {}
+
+    private record Key(LocalDate day, long branchId, String vehicleType) implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::day)
+                .thenComparingLong(Key::branchId)
+                .thenComparing(Key::vehicleType);
+
+        @Override
+        public int compareTo(Key other) { return ORDER.compare(this, other); }
+    }
+
+    private record Totals(double revenue, long payments, long rentals, double booked) {
+        Totals plus(Totals o) {
+            return new Totals(revenue + o.revenue, payments + o.payments, rentals + o.rentals, booked + o.booked);
+        }
+
+        boolean isZero() { return revenue == 0 && payments == 0 && rentals == 0 && booked == 0; }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final ConcurrentSkipListMap<Key, Totals> mirror = new ConcurrentSkipListMap<>();
+
+    public RevenueRollupService(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbc);
+    }
+
+    // Loaded before the web server and schedulers start, so no write can slip between load and first delta
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbc.query("SELECT day, branch_id, vehicle_type, revenue, payment_count, rental_count, booked_amount " +
+                        "FROM revenue_rollup",
+                rs -> {
+                    Key key = new Key(rs.getDate("day").toLocalDate(), rs.getLong("branch_id"), rs.getString("vehicle_type"));
+                    mirror.put(key, new Totals(rs.getDouble("revenue"), rs.getLong("payment_count"),
+                            rs.getLong("rental_count"), rs.getDouble("booked_amount")));
+                });
+    }
+
+    /* ---------- write side ---------- */
+
+    public PaymentFacts snapshot(Payment p) {
+        if (p == null) {
+            return null;
+        }
+        LocalDate day = p.getPaymentDate() != null ? p.getPaymentDate()
+                : p.getCreatedAt() != null ? p.getCreatedAt().toLocalDate() : null;
+        Vehicle v = p.getRental() != null ? p.getRental().getVehicle() : null;
+        return new PaymentFacts(p.getRental() != null ? p.getRental().getRentalId() : null,
+                v != null ? branchOf(v) : null, v != null ? v.getVehicleType() : null, day,
+                p.getAmount() != null ? p.getAmount() : 0.0,
+                p.getPaymentStatus() == Payment.PaymentStatus.Paid);
+    }
+
+    public RentalFacts snapshot(Rental r) {
+        if (r == null) {
+            return null;
+        }
+        Vehicle v = r.getVehicle();
+        return new RentalFacts(v != null ? v.getVehicleId() : null,
+                v != null ? branchOf(v) : null, v != null ? v.getVehicleType() : null, r.getRentalDate(),
+                r.getTotalAmount() != null ? r.getTotalAmount() : 0.0,
+                r.getRentalStatus() != Rental.RentalStatus.Cancelled);
+    }
+
+    private static long branchOf(Vehicle v) {
+        return v.getBranch() != null ? v.getBranch().getBranchId() : 0L;
+    }
+
+    // Either side may be null (create / delete)
+    public void paymentChanged(PaymentFacts before, PaymentFacts after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null && before.paid()) {
+            apply(keyOf(before), new Totals(-before.amount(), -1, 0, 0));
+        }
+        if (after != null && after.paid()) {
+            apply(keyOf(after), new Totals(after.amount(), 1, 0, 0));
+        }
+    }
+
+    public void rentalChanged(RentalFacts before, RentalFacts after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null && before.counted()) {
+            apply(keyOf(before), new Totals(0, 0, -1, -before.amount()));
+        }
+        if (after != null && after.counted()) {
+            apply(keyOf(after), new Totals(0, 0, 1, after.amount()));
+        }
+    }
+
+    // Rentals inserted in bulk; their vehicles are loaded, so keys come straight from the entities
+    public void rentalsCreated(Collection<Rental> rentals) {
+        Map<Key, Totals> deltas = new LinkedHashMap<>();
+        for (Rental r : rentals) {
+            Vehicle v = r.getVehicle();
+            if (v == null || r.getRentalDate() == null || r.getRentalStatus() == Rental.RentalStatus.Cancelled) {
+                continue;
+            }
+            Key key = new Key(r.getRentalDate(), branchOf(v), Objects.toString(v.getVehicleType(), ""));
+            deltas.merge(key, new Totals(0, 0, 1, r.getTotalAmount() != null ? r.getTotalAmount() : 0.0),
+                    Totals::plus);
+        }
+        deltas.forEach(this::apply);
+    }
+
+    // Payments just flipped from unpaid to Paid by a bulk update in the current transaction
+    public void paymentsPaid(Collection<Long> paymentIds) {
+        if (paymentIds.isEmpty()) {
+            return;
+        }
+        Map<Key, Totals> deltas = new LinkedHashMap<>();
+        namedJdbc.query(PAID_TOTALS_SQL, new MapSqlParameterSource("ids", paymentIds), rs -> {
+            Key key = new Key(rs.getDate("day").toLocalDate(), rs.getLong("branch_id"), rs.getString("vehicle_type"));
+            deltas.put(key, new Totals(rs.getDouble("revenue"), rs.getLong("cnt"), 0, 0));
+        });
+        deltas.forEach(this::apply);
+    }
+
+    // Moves a vehicle's rental and paid-payment totals to its new bucket; call in the transaction
+    // that changes its branch or type, with the vehicle row locked so no booking slips in between
+    public void vehicleMoved(Long vehicleId, long oldBranchId, String oldType, long newBranchId, String newType) {
+        String from = Objects.toString(oldType, "");
+        String to = Objects.toString(newType, "");
+        if (vehicleId == null || (oldBranchId == newBranchId && from.equals(to))) {
+            return;
+        }
+        Map<LocalDate, Totals> totals = new LinkedHashMap<>();
+        jdbc.query(VEHICLE_RENTAL_TOTALS_SQL, rs -> {
+            totals.merge(rs.getDate("day").toLocalDate(),
+                    new Totals(0, 0, rs.getLong("cnt"), rs.getDouble("booked")), Totals::plus);
+        }, vehicleId);
+        jdbc.query(VEHICLE_PAID_TOTALS_SQL, rs -> {
+            totals.merge(rs.getDate("day").toLocalDate(),
+                    new Totals(rs.getDouble("revenue"), rs.getLong("cnt"), 0, 0), Totals::plus);
+        }, vehicleId);
+        totals.forEach((day, t) -> {
+            apply(new Key(day, oldBranchId, from), new Totals(-t.revenue(), -t.payments(), -t.rentals(), -t.booked()));
+            apply(new Key(day, newBranchId, to), t);
+        });
+    }
+
+    private Key keyOf(PaymentFacts f) {
+        return f.branchId() != null ? keyOf(f.day(), f.branchId(), f.vehicleType()) : keyOfRental(f.rentalId(), f.day());
+    }
+
+    private Key keyOf(RentalFacts f) {
+        return f.branchId() != null ? keyOf(f.day(), f.branchId(), f.vehicleType()) : keyOfVehicle(f.vehicleId(), f.day());
+    }
+
+    private static Key keyOf(LocalDate day, long branchId, String vehicleType) {
+        return day == null ? null : new Key(day, branchId, Objects.toString(vehicleType, ""));
+    }
+
+    private Key keyOfRental(Long rentalId, LocalDate day) {
+        if (rentalId == null || day == null) {
+            return null;
+        }
+        List<Key> keys = jdbc.query("SELECT v.branch_id, v.vehicle_type FROM rental r " +
+                        "JOIN vehicle v ON v.vehicle_id = r.vehicle_id WHERE r.rental_id = ?",
+                (rs, i) -> new Key(day, rs.getLong(1), Objects.toString(rs.getString(2), "")), rentalId);
+        return keys.isEmpty() ? null : keys.get(0);
+    }
+
+    private Key keyOfVehicle(Long vehicleId, LocalDate day) {
+        if (vehicleId == null || day == null) {
+            return null;
+        }
+        List<Key> keys = jdbc.query("SELECT branch_id, vehicle_type FROM vehicle WHERE vehicle_id = ?",
+                (rs, i) -> new Key(day, rs.getLong(1), Objects.toString(rs.getString(2), "")), vehicleId);
+        return keys.isEmpty() ? null : keys.get(0);
+    }
+
+    private void apply(Key key, Totals delta) {
+        if (key == null || delta.isZero()) {
+            return;
+        }
+        jdbc.update(UPSERT_SQL, Date.valueOf(key.day()), key.branchId(), key.vehicleType(),
+                delta.revenue(), delta.payments(), delta.rentals(), delta.booked());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mirror.merge(key, delta, Totals::plus);
+                }
+            });
+        } else {
+            mirror.merge(key, delta, Totals::plus);
+        }
+    }
+
+    /* ---------- read side ---------- */
+
+    public List<RevenueReportRow> report(LocalDate from, LocalDate to, String groupBy) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid report period");
+        }
+        Set<Dimension> dims = parseGroupBy(groupBy);
+
+        ConcurrentNavigableMap<Key, Totals> range = mirror.subMap(
+                new Key(from, Long.MIN_VALUE, ""), true, new Key(to.plusDays(1), Long.MIN_VALUE, ""), false);
+
+        Map<Key, Totals> grouped = new LinkedHashMap<>();
+        for (Map.Entry<Key, Totals> e : range.entrySet()) {
+            Key k = e.getKey();
+            Key g = new Key(dims.contains(Dimension.DAY) ? k.day() : from,
+                    dims.contains(Dimension.BRANCH) ? k.branchId() : 0L,
+                    dims.contains(Dimension.VEHICLETYPE) ? k.vehicleType() : "");
+            grouped.merge(g, e.getValue(), Totals::plus);
+        }
+
+        List<RevenueReportRow> rows = new ArrayList<>(grouped.size());
+        grouped.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> {
+                    Key k = e.getKey();
+                    Totals t = e.getValue();
+                    rows.add(new RevenueReportRow(
+                            dims.contains(Dimension.DAY) ? k.day() : null,
+                            dims.contains(Dimension.BRANCH) ? k.branchId() : null,
+                            dims.contains(Dimension.VEHICLETYPE) ? k.vehicleType() : null,
+                            t.revenue(), t.payments(), t.rentals(), t.booked()));
+                });
+        return rows;
+    }
+
+    // "day", "branch", "vehicleType" or a comma-separated combination; blank means one total row
+    private static Set<Dimension> parseGroupBy(String groupBy) {
+        Set<Dimension> dims = EnumSet.noneOf(Dimension.class);
+        if (groupBy == null || groupBy.isBlank()) {
+            return dims;
+        }
+        for (String part : groupBy.split(",")) {
+            String name = part.trim().toUpperCase(Locale.ROOT).replace("_", "");
+            try {
+                dims.add(Dimension.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown groupBy: " + part.trim());
+            }
+        }
+        return dims;
+    }
+}
@@ -0,0 +1,109 @@
+package com.vehiclerental.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Content-addressed slip store under file.slip-dir. Uploads are hashed
+ * (SHA-256) while being streamed to a temp file, then moved to
+ * ab/cd/&lt;hash&gt;.&lt;ext&gt;; identical uploads share one file.
+ */
+@Service
+public class SlipStorageService {
+
+    // Where slips were written before file.slip-dir was honoured
+    private static final Path LEGACY_ROOT = Paths.get("uploads/slips").toAbsolutePath().normalize();
+
+    private final Path root;
+    private final Path tmpDir;
+    private final long maxBytes;
+
+    public record StoredSlip(String fileName, String sha256) {}
+
+    public SlipStorageService(@Value("${file.slip-dir}") String slipDir,
+                              @Value("${file.slip-max-bytes:10485760}") long maxBytes) throws IOException {
+        this.root = Paths.get(slipDir).toAbsolutePath().normalize();
+        this.tmpDir = root.resolve("tmp");
+        this.maxBytes = maxBytes;
+        Files.createDirectories(tmpDir);
+    }
+
+    public StoredSlip store(MultipartFile slip) throws IOException {
+        // Reject on the declared size first, then enforce the limit while copying
+        if (slip.getSize() > maxBytes) {
+            throw new IllegalArgumentException("Slip exceeds the maximum size of " + maxBytes + " bytes");
+        }
+
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        try {
+            try (InputStream in = new DigestInputStream(slip.getInputStream(), sha256);
+                 OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[8192];
+                long total = 0;
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    total += n;
+                    if (total > maxBytes) {
+                        throw new IllegalArgumentException("Slip exceeds the maximum size of " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, n);
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            String fileName = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/"
+                    + hash + extension(slip.getOriginalFilename());
+            Path target = root.resolve(fileName);
+
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // Same name means same content, so a racing move is harmless
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredSlip(fileName, hash);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Locate a stored slip, falling back to the legacy upload directory
+    public Optional<Path> resolve(String fileName) {
+        for (Path base : new Path[] {root, LEGACY_ROOT}) {
+            Path file = base.resolve(fileName).normalize();
+            if (file.startsWith(base) && Files.isReadable(file)) {
+                return Optional.of(file);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String extension(String originalName) {
+        if (originalName == null) {
+            return "";
+        }
+        int dot = originalName.lastIndexOf('.');
+        String ext = dot < 0 ? "" : originalName.substring(dot + 1);
+        return ext.matches("[A-Za-z0-9]{1,10}") ? "." + ext.toLowerCase() : "";
+    }
+}
@@ -5,6 +5,7 @@ package com.vehiclerental.service;
 import com.vehiclerental.entity.Staff;
 import com.vehiclerental.repository.StaffRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -20,6 +21,7 @@ public class StaffService {
         return staffRepo.save(staff);
     }
 
+    @Transactional(readOnly = true)
     public List<Staff> getAllStaff() {
         return staffRepo.findAll();
     }
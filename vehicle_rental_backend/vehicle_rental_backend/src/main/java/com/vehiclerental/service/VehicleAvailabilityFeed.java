@@ -0,0 +1,170 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.Dto.VehicleAvailabilityDelta;
+import com.vehiclerental.event.VehicleAvailabilityChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out of vehicle availability deltas to Server-Sent Events clients.
+ *
+ * Deltas come from the in-memory projection, so connected dashboards cost no
+ * database queries. Each client has a bounded queue drained by a small shared
+ * sender pool; a client whose queue overflows is disconnected (its EventSource
+ * reconnects and reloads the list) instead of holding memory or slowing others.
+ */
+@Service
+public class VehicleAvailabilityFeed {
+    public static final String EVENT_NAME = "availability";
+
+    private static final Object PING = new Object();
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final int bufferSize;
+    private final int maxClients;
+    private final long timeoutMs;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public VehicleAvailabilityFeed(@Value("${vehicle.stream.buffer-size:256}") int bufferSize,
+                                   @Value("${vehicle.stream.max-clients:10000}") int maxClients,
+                                   @Value("${vehicle.stream.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${vehicle.stream.sender-threads:4}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.maxClients = maxClients;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger n = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "vehicle-stream-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public SseEmitter subscribe() {
+        if (clients.size() >= maxClients) {
+            throw new RejectedExecutionException("Too many vehicle stream clients");
+        }
+        Client client = new Client(new SseEmitter(timeoutMs), new ArrayBlockingQueue<>(bufferSize));
+        client.emitter.onCompletion(() -> clients.remove(client));
+        client.emitter.onTimeout(() -> clients.remove(client));
+        client.emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+        enqueue(client, PING);
+        return client.emitter;
+    }
+
+    @EventListener
+    public void onAvailabilityChanged(VehicleAvailabilityChangedEvent event) {
+        published.add(event.getDeltas().size());
+        for (Client client : clients) {
+            for (VehicleAvailabilityDelta delta : event.getDeltas()) {
+                if (!enqueue(client, delta)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // Keeps proxies from closing idle streams and finds clients that went away
+    @Scheduled(fixedDelayString = "${vehicle.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        clients.forEach(client -> enqueue(client, PING));
+    }
+
+    private boolean enqueue(Client client, Object item) {
+        if (!client.queue.offer(item)) {
+            evict(client, true);
+            return false;
+        }
+        if (client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+        return true;
+    }
+
+    private void drain(Client client) {
+        try {
+            Object item;
+            while (!client.closed && (item = client.queue.poll()) != null) {
+                if (item == PING) {
+                    client.emitter.send(SseEmitter.event().comment("ping").reconnectTime(3000));
+                } else {
+                    client.emitter.send(SseEmitter.event().name(EVENT_NAME).data(item, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected (or its emitter already completed)
+            evict(client, false);
+        } finally {
+            client.draining.set(false);
+        }
+        // An item may have arrived after the last poll but before draining was cleared
+        if (!client.closed && !client.queue.isEmpty() && client.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    private void evict(Client client, boolean slow) {
+        if (!clients.remove(client)) {
+            return;
+        }
+        client.closed = true;
+        client.queue.clear();
+        if (slow) {
+            evicted.increment();
+        }
+        try {
+            client.emitter.complete();
+        } catch (IllegalStateException ignored) {
+            // Already completed by the container
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("clients", clients.size());
+        stats.put("published", published.sum());
+        stats.put("evictedSlowClients", evicted.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(client -> evict(client, false));
+        senders.shutdownNow();
+    }
+
+    private static final class Client {
+        final SseEmitter emitter;
+        final BlockingQueue<Object> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Client(SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
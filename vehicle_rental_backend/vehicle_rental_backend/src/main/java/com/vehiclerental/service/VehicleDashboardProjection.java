@@ -0,0 +1,197 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.Dto.VehicleAvailabilityDelta;
+import com.vehiclerental.Dto.VehicleDashboardRow;
+import com.vehiclerental.Dto.VehicleSnapshot;
+import com.vehiclerental.Dto.VehicleViewDTO;
+import com.vehiclerental.entity.Vehicle;
+import com.vehiclerental.event.BranchChangedEvent;
+import com.vehiclerental.event.VehicleAvailabilityChangedEvent;
+import com.vehiclerental.event.VehicleChangedEvent;
+import com.vehiclerental.repository.VehicleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of vehicle_dashboard_view (vehicle joined with branch).
+ * Loaded once, then kept current by reloading only the vehicles named in
+ * VehicleChangedEvent / BranchChangedEvent, so the dashboard endpoints never
+ * query the database. Inverted indexes over type, brand and branch back the
+ * vehicle search. Status and branch changes seen while refreshing are published
+ * as VehicleAvailabilityChangedEvent for the live feed.
+ */
+@Component
+public class VehicleDashboardProjection {
+
+    private final VehicleRepository vehicleRepo;
+    private final ApplicationEventPublisher events;
+    private final ConcurrentSkipListMap<Long, VehicleSnapshot> rows = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> byType = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> byBrand = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> byBranch = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public VehicleDashboardProjection(VehicleRepository vehicleRepo, ApplicationEventPublisher events) {
+        this.vehicleRepo = vehicleRepo;
+        this.events = events;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    public List<VehicleDashboardRow> getDashboardRows() {
+        ensureLoaded();
+        return rows.values().stream()
+                .map(VehicleDashboardRow::new)
+                .collect(Collectors.toList());
+    }
+
+    public List<VehicleViewDTO> getAvailableRows() {
+        ensureLoaded();
+        return rows.values().stream()
+                .filter(v -> v.availabilityStatus() == Vehicle.AvailabilityStatus.Available)
+                .map(VehicleViewDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    // Vehicles matching every given attribute (null = any), via the inverted indexes
+    public List<VehicleSnapshot> findByAttributes(String vehicleType, String brand, Long branchId) {
+        ensureLoaded();
+        List<Set<Long>> postings = new ArrayList<>();
+        if (vehicleType != null) postings.add(byType.getOrDefault(key(vehicleType), Set.of()));
+        if (brand != null) postings.add(byBrand.getOrDefault(key(brand), Set.of()));
+        if (branchId != null) postings.add(byBranch.getOrDefault(branchId, Set.of()));
+
+        if (postings.isEmpty()) {
+            return new ArrayList<>(rows.values());
+        }
+        // Walk the smallest posting list and probe the others
+        postings.sort(Comparator.comparingInt(Set::size));
+        List<VehicleSnapshot> result = new ArrayList<>();
+        for (Long id : postings.get(0)) {
+            boolean all = true;
+            for (int i = 1; i < postings.size() && all; i++) {
+                all = postings.get(i).contains(id);
+            }
+            VehicleSnapshot v = all ? rows.get(id) : null;
+            if (v != null) {
+                result.add(v);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        refresh(event.getVehicleIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBranchChanged(BranchChangedEvent event) {
+        Set<Long> affected = rows.values().stream()
+                .filter(v -> event.getBranchId().equals(v.branchId()))
+                .map(VehicleSnapshot::vehicleId)
+                .collect(Collectors.toSet());
+        refresh(affected);
+    }
+
+    private synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        rows.clear();
+        byType.clear();
+        byBrand.clear();
+        byBranch.clear();
+        for (VehicleSnapshot v : vehicleRepo.findSnapshots()) {
+            put(v);
+        }
+        loaded = true;
+    }
+
+    // Serialized so an older read can never overwrite a newer one
+    private synchronized void refresh(Collection<Long> vehicleIds) {
+        if (!loaded || vehicleIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(vehicleIds);
+        List<VehicleAvailabilityDelta> deltas = new ArrayList<>();
+        for (VehicleSnapshot v : vehicleRepo.findSnapshotsByIds(vehicleIds)) {
+            VehicleSnapshot old = put(v);
+            missing.remove(v.vehicleId());
+            if (old == null || old.availabilityStatus() != v.availabilityStatus()
+                    || !Objects.equals(old.branchId(), v.branchId())) {
+                deltas.add(new VehicleAvailabilityDelta(v.vehicleId(),
+                        old != null ? old.availabilityStatus() : null, v.availabilityStatus(), v.branchId()));
+            }
+        }
+        // Deleted, or no longer joined to a branch
+        for (Long id : missing) {
+            VehicleSnapshot old = remove(id);
+            if (old != null) {
+                deltas.add(new VehicleAvailabilityDelta(id, old.availabilityStatus(), null, old.branchId()));
+            }
+        }
+        if (!deltas.isEmpty()) {
+            events.publishEvent(new VehicleAvailabilityChangedEvent(deltas));
+        }
+    }
+
+    private VehicleSnapshot put(VehicleSnapshot v) {
+        VehicleSnapshot old = rows.put(v.vehicleId(), v);
+        if (old != null) {
+            unindex(old);
+        }
+        if (v.vehicleType() != null) {
+            byType.computeIfAbsent(key(v.vehicleType()), k -> ConcurrentHashMap.newKeySet()).add(v.vehicleId());
+        }
+        if (v.brand() != null) {
+            byBrand.computeIfAbsent(key(v.brand()), k -> ConcurrentHashMap.newKeySet()).add(v.vehicleId());
+        }
+        byBranch.computeIfAbsent(v.branchId(), k -> ConcurrentHashMap.newKeySet()).add(v.vehicleId());
+        return old;
+    }
+
+    private VehicleSnapshot remove(Long vehicleId) {
+        VehicleSnapshot old = rows.remove(vehicleId);
+        if (old != null) {
+            unindex(old);
+        }
+        return old;
+    }
+
+    private void unindex(VehicleSnapshot v) {
+        if (v.vehicleType() != null) {
+            Set<Long> ids = byType.get(key(v.vehicleType()));
+            if (ids != null) ids.remove(v.vehicleId());
+        }
+        if (v.brand() != null) {
+            Set<Long> ids = byBrand.get(key(v.brand()));
+            if (ids != null) ids.remove(v.vehicleId());
+        }
+        Set<Long> ids = byBranch.get(v.branchId());
+        if (ids != null) ids.remove(v.vehicleId());
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,305 @@
+package com.vehiclerental.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehiclerental.Dto.VehicleImportResult;
+import com.vehiclerental.Dto.VehicleImportRow;
+import com.vehiclerental.entity.Vehicle;
+import com.vehiclerental.event.VehicleChangedEvent;
+import com.vehiclerental.repository.BranchRepository;
+import com.vehiclerental.repository.VehicleRepository;
+import com.vehiclerental.util.CsvUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a fleet file (CSV with a header row, a JSON array or NDJSON) into the
+ * vehicle table.
+ *
+ * Registration numbers are checked against an in-memory set loaded once per
+ * import, so duplicates never reach the database. Rows are inserted in chunks,
+ * one transaction each; a chunk that still fails is retried row by row, so a
+ * bad row costs only itself and never a full rollback.
+ */
+@Service
+public class VehicleImportService {
+    private static final int MAX_ERRORS = 1000;
+
+    public enum Format {
+        CSV, JSON;
+
+        public static Format from(MediaType contentType) {
+            if (contentType != null && ("csv".equalsIgnoreCase(contentType.getSubtype())
+                    || MediaType.TEXT_PLAIN.includes(contentType))) {
+                return CSV;
+            }
+            return JSON;
+        }
+    }
+
+    // Next row of the input, null at the end; IllegalArgumentException for a row that cannot be read
+    private interface RowSource {
+        VehicleImportRow next() throws IOException;
+    }
+
+    private record PendingRow(long row, VehicleImportRow data, String key) {}
+
+    private final VehicleRepository vehicleRepo;
+    private final BranchRepository branchRepo;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public VehicleImportService(VehicleRepository vehicleRepo, BranchRepository branchRepo,
+                                TransactionTemplate tx, ApplicationEventPublisher events, ObjectMapper objectMapper,
+                                @Value("${vehicle.import.chunk-size:500}") int chunkSize) {
+        this.vehicleRepo = vehicleRepo;
+        this.branchRepo = branchRepo;
+        this.tx = tx;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public VehicleImportResult importVehicles(InputStream in, Format format) throws IOException {
+        long start = System.nanoTime();
+        RowSource source = format == Format.CSV ? csvSource(in) : jsonSource(in);
+
+        Set<String> registrations = new HashSet<>(vehicleRepo.findAllRegistrationKeys());
+        Set<Long> branchIds = new HashSet<>(branchRepo.findAllIds());
+
+        Progress progress = new Progress();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        long rowNo = 0;
+        while (true) {
+            VehicleImportRow data;
+            try {
+                data = source.next();
+            } catch (IllegalArgumentException | DatabindException e) {
+                rowNo++;
+                progress.total++;
+                progress.fail(rowNo, null, e.getMessage());
+                continue;
+            } catch (JsonParseException e) {
+                progress.fail(rowNo + 1, null, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                break;
+            }
+            if (data == null) {
+                break;
+            }
+            rowNo++;
+            progress.total++;
+
+            String error = validate(data, branchIds);
+            if (error != null) {
+                progress.fail(rowNo, data.getRegistrationNo(), error);
+                continue;
+            }
+            String key = data.getRegistrationNo().trim().toUpperCase(Locale.ROOT);
+            if (!registrations.add(key)) {
+                progress.duplicate(rowNo, data.getRegistrationNo());
+                continue;
+            }
+
+            chunk.add(new PendingRow(rowNo, data, key));
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, registrations, progress);
+            }
+        }
+        flush(chunk, registrations, progress);
+
+        if (!progress.ids.isEmpty()) {
+            events.publishEvent(new VehicleChangedEvent(progress.ids));
+        }
+        return new VehicleImportResult(progress.total, progress.ids.size(), progress.duplicates, progress.failed,
+                (System.nanoTime() - start) / 1_000_000, progress.errors);
+    }
+
+    private void flush(List<PendingRow> chunk, Set<String> registrations, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Vehicle> saved = tx.execute(status ->
+                    vehicleRepo.saveAll(chunk.stream().map(this::toVehicle).toList()));
+            saved.forEach(v -> progress.ids.add(v.getVehicleId()));
+        } catch (RuntimeException chunkFailure) {
+            entityManager.clear();
+            for (PendingRow p : chunk) {
+                try {
+                    Vehicle v = tx.execute(status -> vehicleRepo.save(toVehicle(p)));
+                    progress.ids.add(v.getVehicleId());
+                } catch (DataIntegrityViolationException e) {
+                    // Inserted concurrently by someone else; the key stays in the set
+                    progress.duplicate(p.row(), p.data().getRegistrationNo());
+                } catch (RuntimeException e) {
+                    registrations.remove(p.key());
+                    progress.fail(p.row(), p.data().getRegistrationNo(), e.getMessage());
+                } finally {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            // Keep the (possibly request-scoped) persistence context from growing with the import
+            entityManager.clear();
+            chunk.clear();
+        }
+    }
+
+    private Vehicle toVehicle(PendingRow p) {
+        VehicleImportRow data = p.data();
+        Vehicle v = new Vehicle();
+        v.setRegistrationNo(data.getRegistrationNo().trim());
+        v.setVehicleType(data.getVehicleType());
+        v.setBrand(data.getBrand());
+        v.setModel(data.getModel());
+        v.setDailyRate(data.getDailyRate());
+        v.setAvailabilityStatus(parseStatus(data.getAvailabilityStatus()));
+        if (data.getBranchId() != null) {
+            v.setBranch(branchRepo.getReferenceById(data.getBranchId()));
+        }
+        return v;
+    }
+
+    private static String validate(VehicleImportRow data, Set<Long> branchIds) {
+        if (data.getRegistrationNo() == null || data.getRegistrationNo().isBlank()) {
+            return "registrationNo is required";
+        }
+        if (data.getDailyRate() != null && data.getDailyRate() < 0) {
+            return "dailyRate must not be negative";
+        }
+        if (data.getBranchId() != null && !branchIds.contains(data.getBranchId())) {
+            return "branch " + data.getBranchId() + " not found";
+        }
+        if (data.getAvailabilityStatus() != null && !data.getAvailabilityStatus().isBlank()
+                && parseStatus(data.getAvailabilityStatus()) == null) {
+            return "unknown availabilityStatus " + data.getAvailabilityStatus();
+        }
+        return null;
+    }
+
+    private static Vehicle.AvailabilityStatus parseStatus(String value) {
+        if (value == null || value.isBlank()) {
+            return Vehicle.AvailabilityStatus.Available;
+        }
+        for (Vehicle.AvailabilityStatus s : Vehicle.AvailabilityStatus.values()) {
+            if (s.name().equalsIgnoreCase(value.trim())) {
+                return s;
+            }
+        }
+        return null;
+    }
+
+    /* ---------- input formats ---------- */
+
+    // JSON array or newline-delimited objects; elements are bound one at a time
+    private RowSource jsonSource(InputStream in) throws IOException {
+        MappingIterator<VehicleImportRow> it = objectMapper.readerFor(VehicleImportRow.class).readValues(in);
+        return () -> it.hasNextValue() ? it.nextValue() : null;
+    }
+
+    private RowSource csvSource(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return () -> null;
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvUtils.parseLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.putIfAbsent(names.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""), i);
+        }
+        if (!columns.containsKey("registrationno")) {
+            throw new IllegalArgumentException("CSV header must contain a registrationNo column");
+        }
+
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            List<String> fields = CsvUtils.parseLine(line);
+            VehicleImportRow row = new VehicleImportRow();
+            row.setRegistrationNo(field(fields, columns, "registrationno"));
+            row.setVehicleType(field(fields, columns, "vehicletype"));
+            row.setBrand(field(fields, columns, "brand"));
+            row.setModel(field(fields, columns, "model"));
+            row.setAvailabilityStatus(field(fields, columns, "availabilitystatus"));
+            try {
+                String rate = field(fields, columns, "dailyrate");
+                row.setDailyRate(rate == null ? null : Double.valueOf(rate));
+                String branch = field(fields, columns, "branchid");
+                row.setBranchId(branch == null ? null : Long.valueOf(branch));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid number: " + e.getMessage());
+            }
+            return row;
+        };
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer i = columns.get(name);
+        if (i == null || i >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(i).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Counters of one import run
+    private static class Progress {
+        long total;
+        long duplicates;
+        long failed;
+        final List<Long> ids = new ArrayList<>();
+        final List<VehicleImportResult.RowError> errors = new ArrayList<>();
+
+        void duplicate(long row, String registrationNo) {
+            duplicates++;
+            addError(row, registrationNo, "registration number already exists");
+        }
+
+        void fail(long row, String registrationNo, String message) {
+            failed++;
+            addError(row, registrationNo, message);
+        }
+
+        private void addError(long row, String registrationNo, String message) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new VehicleImportResult.RowError(row, registrationNo, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.Dto.VehicleSearchCriteria;
+import com.vehiclerental.Dto.VehicleSearchResult;
+import com.vehiclerental.Dto.VehicleSnapshot;
+import com.vehiclerental.Dto.VehicleViewDTO;
+import com.vehiclerental.repository.RentalRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class VehicleSearchService {
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final VehicleDashboardProjection projection;
+    private final RentalRepository rentalRepo;
+
+    public VehicleSearchService(VehicleDashboardProjection projection, RentalRepository rentalRepo) {
+        this.projection = projection;
+        this.rentalRepo = rentalRepo;
+    }
+
+    public VehicleSearchResult search(VehicleSearchCriteria c) {
+        if (c.getMinRate() != null && c.getMaxRate() != null && c.getMinRate() > c.getMaxRate()) {
+            throw new IllegalArgumentException("minRate must not exceed maxRate");
+        }
+        if ((c.getFreeFrom() == null) != (c.getFreeTo() == null)
+                || (c.getFreeFrom() != null && c.getFreeTo().isBefore(c.getFreeFrom()))) {
+            throw new IllegalArgumentException("freeFrom and freeTo must be given together as a valid range");
+        }
+
+        // Equality filters come from the in-memory indexes, date availability (rentals and
+        // maintenance windows) from one indexed query
+        Set<Long> booked = new HashSet<>();
+        if (c.getFreeFrom() != null) {
+            rentalRepo.findBlockedVehicleIds(c.getFreeFrom(), c.getFreeTo()).forEach(id -> booked.add(id.longValue()));
+        }
+
+        Stream<VehicleSnapshot> matches = projection
+                .findByAttributes(c.getVehicleType(), c.getBrand(), c.getBranchId())
+                .stream()
+                .filter(v -> c.getMinRate() == null || (v.dailyRate() != null && v.dailyRate() >= c.getMinRate()))
+                .filter(v -> c.getMaxRate() == null || (v.dailyRate() != null && v.dailyRate() <= c.getMaxRate()))
+                .filter(v -> !booked.contains(v.vehicleId()));
+
+        List<VehicleSnapshot> sorted = matches.sorted(comparator(c.getSort())).collect(Collectors.toList());
+
+        int size = Math.max(1, Math.min(c.getSize(), MAX_PAGE_SIZE));
+        int page = Math.max(0, c.getPage());
+        List<VehicleViewDTO> items = sorted.stream()
+                .skip((long) page * size)
+                .limit(size)
+                .map(VehicleViewDTO::new)
+                .collect(Collectors.toList());
+        return new VehicleSearchResult(items, sorted.size(), page, size);
+    }
+
+    private Comparator<VehicleSnapshot> comparator(String sort) {
+        String[] parts = (sort == null ? "vehicleId" : sort).split(",");
+        Comparator<VehicleSnapshot> cmp = switch (parts[0].trim()) {
+            case "dailyRate" -> Comparator.comparing(VehicleSnapshot::dailyRate,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "brand" -> Comparator.comparing(VehicleSnapshot::brand,
+                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+            case "vehicleId" -> Comparator.comparing(VehicleSnapshot::vehicleId);
+            default -> throw new IllegalArgumentException("Unsupported sort: " + parts[0]);
+        };
+        if (parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim())) {
+            cmp = cmp.reversed();
+        }
+        return cmp.thenComparing(VehicleSnapshot::vehicleId);
+    }
+}
@@ -1,38 +1,80 @@
 package com.vehiclerental.service;
 
 
+import com.vehiclerental.Dto.VehicleDashboardRow;
+import com.vehiclerental.Dto.VehicleViewDTO;
+import com.vehiclerental.entity.Branch;
 import com.vehiclerental.entity.Vehicle;
+import com.vehiclerental.event.BranchChangedEvent;
+import com.vehiclerental.event.VehicleChangedEvent;
 import com.vehiclerental.repository.VehicleRepository;
+import com.vehiclerental.util.TtlCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class VehicleService {
+    private static final String ALL = "all";
+    private static final String AVAILABLE = "available";
+
     @Autowired
     private final VehicleRepository vehicleRepo;
-
-    public VehicleService(VehicleRepository vehicleRepo) {
+    private final ApplicationEventPublisher events;
+    private final VehicleDashboardProjection dashboard;
+    private final RevenueRollupService rollups;
+
+    // Catalog reads are served from here; every vehicle or branch write publishes a
+    // VehicleChangedEvent / BranchChangedEvent which evicts the affected entries after commit
+    private final TtlCache<Long, Vehicle> vehicleCache;
+    private final TtlCache<String, List<Vehicle>> listCache;
+
+    public VehicleService(VehicleRepository vehicleRepo, ApplicationEventPublisher events,
+                          VehicleDashboardProjection dashboard, RevenueRollupService rollups,
+                          @Value("${vehicle.cache.max-size:10000}") int cacheMaxSize,
+                          @Value("${vehicle.cache.ttl-seconds:300}") long cacheTtlSeconds) {
         this.vehicleRepo = vehicleRepo;
+        this.events = events;
+        this.dashboard = dashboard;
+        this.rollups = rollups;
+        this.vehicleCache = new TtlCache<>(cacheMaxSize, Duration.ofSeconds(cacheTtlSeconds));
+        this.listCache = new TtlCache<>(2, Duration.ofSeconds(cacheTtlSeconds));
     }
 
     public Vehicle createVehicle(Vehicle vehicle) {
-        return vehicleRepo.save(vehicle);
+        Vehicle saved = vehicleRepo.save(vehicle);
+        events.publishEvent(VehicleChangedEvent.of(saved.getVehicleId()));
+        return saved;
     }
 
     public List<Vehicle> getAllVehicles() {
-        return vehicleRepo.findAll();
+        return listCache.get(ALL, k -> List.copyOf(vehicleRepo.findAll()));
     }
 
     public Vehicle getVehicleById(Long id) {
-        return vehicleRepo.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
+        Vehicle vehicle = vehicleCache.get(id, k -> vehicleRepo.findById(k).orElse(null));
+        if (vehicle == null) {
+            throw new IllegalArgumentException("Vehicle not found");
+        }
+        return vehicle;
     }
 
+    @Transactional
     public Vehicle updateVehicle(Long id, Vehicle updatedVehicle) {
-        Vehicle existing = getVehicleById(id);
+        // Read from the database, never mutate the shared cached instance; the row lock keeps
+        // bookings of this vehicle out while its revenue totals move to a new branch or type
+        Vehicle existing = vehicleRepo.findByIdForUpdate(id)
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
+        long oldBranchId = branchIdOf(existing.getBranch());
+        String oldType = existing.getVehicleType();
         existing.setBrand(updatedVehicle.getBrand());
         existing.setModel(updatedVehicle.getModel());
         existing.setDailyRate(updatedVehicle.getDailyRate());
@@ -40,30 +82,66 @@ public class VehicleService {
         existing.setBranch(updatedVehicle.getBranch());
         existing.setVehicleType(updatedVehicle.getVehicleType());
         existing.setRegistrationNo(updatedVehicle.getRegistrationNo());
-        return vehicleRepo.save(existing);
+        Vehicle saved = vehicleRepo.save(existing);
+        rollups.vehicleMoved(id, oldBranchId, oldType, branchIdOf(saved.getBranch()), saved.getVehicleType());
+        events.publishEvent(VehicleChangedEvent.of(id));
+        return saved;
+    }
+
+    private static long branchIdOf(Branch branch) {
+        return branch != null && branch.getBranchId() != null ? branch.getBranchId() : 0L;
     }
 
     public void deleteVehicle(Long id) {
         vehicleRepo.deleteById(id);
+        events.publishEvent(VehicleChangedEvent.of(id));
     }
 
     public List<Vehicle> getAvailableVehicles() {
-        return vehicleRepo.findByAvailabilityStatus("Available");
+        return listCache.get(AVAILABLE, k -> List.copyOf(vehicleRepo.findByAvailabilityStatus("Available")));
     }
 
     // ✅ Add this to fix the MaintenanceController error
     public Vehicle save(Vehicle vehicle) {
-        return vehicleRepo.save(vehicle);
+        Vehicle saved = vehicleRepo.save(vehicle);
+        events.publishEvent(VehicleChangedEvent.of(saved.getVehicleId()));
+        return saved;
+    }
+
+    // Runs after the publishing transaction commits (or immediately outside one)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        event.getVehicleIds().forEach(vehicleCache::invalidate);
+        listCache.invalidateAll();
+    }
+
+    // Cached vehicles embed their branch (and its manager), so a renamed or deleted branch
+    // evicts every vehicle; branch writes are rare enough not to track which ids it touched
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBranchChanged(BranchChangedEvent event) {
+        vehicleCache.invalidateAll();
+        listCache.invalidateAll();
     }
 
+    public Map<String, Object> getCacheStats() {
+        long hits = vehicleCache.getHits() + listCache.getHits();
+        long misses = vehicleCache.getMisses() + listCache.getMisses();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("cachedVehicles", vehicleCache.size());
+        return stats;
+    }
 
 
-    public List<Map<String, Object>> getVehicleView() {
-        return vehicleRepo.getVehicleViewData();
+
+    public List<VehicleDashboardRow> getVehicleView() {
+        return dashboard.getDashboardRows();
     }
 
-    public List<Map<String, Object>> getAvailableVehiclesView() {
-    return vehicleRepo.getAvailableVehiclesFromView();
-}
+    public List<VehicleViewDTO> getAvailableVehiclesView() {
+        return dashboard.getAvailableRows();
+    }
 
 }
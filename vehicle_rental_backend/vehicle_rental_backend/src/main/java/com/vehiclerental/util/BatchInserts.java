@@ -0,0 +1,53 @@
+package com.vehiclerental.util;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch inserts into tables with AUTO_INCREMENT ids, returning the
+ * generated ids in row order. With rewriteBatchedStatements each chunk is one
+ * multi-row INSERT, so ids need no separate allocation round trip.
+ */
+public final class BatchInserts {
+
+    private BatchInserts() {}
+
+    public static <T> List<Long> insert(JdbcTemplate jdbc, String sql, List<T> rows, int chunkSize,
+                                        ParameterizedPreparedStatementSetter<T> setter) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<T> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbc.batchUpdate(con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            setter.setValues(ps, chunk.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    }, keys);
+            for (Map<String, Object> key : keys.getKeyList()) {
+                ids.add(((Number) key.values().iterator().next()).longValue());
+            }
+            if (ids.size() != from + chunk.size()) {
+                throw new IllegalStateException("Expected " + chunk.size() + " generated ids, got "
+                        + (ids.size() - from));
+            }
+        }
+        return ids;
+    }
+}
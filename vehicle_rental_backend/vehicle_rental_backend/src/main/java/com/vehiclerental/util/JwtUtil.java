@@ -1,33 +1,56 @@
 package com.vehiclerental.util;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.security.Key;
 
 @Component
 public class JwtUtil {
-   private final String SECRET_KEY = "your_super_secret_key_change_this_1234567890";
+    public static final String ROLE_CLAIM = "role";
+    public static final String CUSTOMER_ID_CLAIM = "customerId";
 
+    // Key and parser are immutable and thread-safe; build them once instead of per token
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long expirationMillis;
+
+    public JwtUtil(@Value("${jwt.secret:your_super_secret_key_change_this_1234567890}") String secret,
+                   @Value("${jwt.expiration-ms:3600000}") long expirationMillis) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.expirationMillis = expirationMillis;
+    }
 
     public String generateToken(String username) {
-        return Jwts.builder()
+        return generateToken(username, null, null);
+    }
+
+    // Role and customer id travel in the token so requests can be authenticated without a lookup
+    public String generateToken(String username, String role, Long customerId) {
+        long now = System.currentTimeMillis();
+        var builder = Jwts.builder()
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
-                .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()), SignatureAlgorithm.HS256)
-                .compact();
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expirationMillis));
+        if (role != null) builder.claim(ROLE_CLAIM, role);
+        if (customerId != null) builder.claim(CUSTOMER_ID_CLAIM, customerId);
+        return builder.signWith(signingKey, SignatureAlgorithm.HS256).compact();
+    }
+
+    // Verifies signature and expiry; throws JwtException for an invalid token
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 }
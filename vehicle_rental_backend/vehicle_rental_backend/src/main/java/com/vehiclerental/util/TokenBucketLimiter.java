@@ -0,0 +1,59 @@
+package com.vehiclerental.util;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets keyed by an arbitrary string (username, client IP).
+ *
+ * Each bucket is a single AtomicLong holding the time at which it will be full
+ * again (the GCRA form of a token bucket), updated with a CAS loop: a bucket
+ * holds up to {@code capacity} tokens and regains one every
+ * {@code refillInterval}.
+ */
+public class TokenBucketLimiter {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketLimiter(int capacity, Duration refillInterval) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.intervalNanos = refillInterval.toNanos();
+        this.burstNanos = intervalNanos * capacity;
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return 0 if the call is allowed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long base = current - now < 0 ? now : current;
+            long next = base + intervalNanos;
+            long overdraw = next - now - burstNanos;
+            if (overdraw > 0) {
+                return overdraw;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Drops buckets that are full again; they behave exactly like absent ones
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(e -> e.getValue().get() - now <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
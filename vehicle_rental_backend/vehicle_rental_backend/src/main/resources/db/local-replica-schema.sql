@@ -0,0 +1,148 @@
+-- Schema for the local-replica profile (H2 in MySQL mode). Run through INIT=RUNSCRIPT on every
+-- connection to both in-memory databases, so each statement must be idempotent. Keep in step with
+-- the entities; the MySQL schema lives in Database/vehiclerentaldb_v2.sql.
+
+CREATE TABLE IF NOT EXISTS id_generator (
+    gen_name VARCHAR(255) PRIMARY KEY,
+    next_val BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    role VARCHAR(255),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS branch (
+    branch_id BIGINT PRIMARY KEY,
+    branch_name VARCHAR(255) NOT NULL,
+    location VARCHAR(255),
+    contact_no VARCHAR(255),
+    manager_id BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS staff (
+    staff_id BIGINT PRIMARY KEY,
+    full_name VARCHAR(255) NOT NULL,
+    role VARCHAR(255),
+    phone_no VARCHAR(255),
+    email VARCHAR(255),
+    username VARCHAR(255) UNIQUE,
+    password VARCHAR(255),
+    branch_id BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS customer (
+    customer_id BIGINT PRIMARY KEY,
+    full_name VARCHAR(255) NOT NULL,
+    nic_passport_no VARCHAR(255) UNIQUE,
+    phone_no VARCHAR(255),
+    email VARCHAR(255),
+    address VARCHAR(255),
+    license_no VARCHAR(255) UNIQUE,
+    username VARCHAR(255) UNIQUE,
+    password VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS vehicle (
+    vehicle_id BIGINT PRIMARY KEY,
+    vehicle_type VARCHAR(255),
+    brand VARCHAR(255),
+    model VARCHAR(255),
+    registration_no VARCHAR(255) UNIQUE,
+    daily_rate DOUBLE,
+    availability_status VARCHAR(20),
+    branch_id BIGINT
+);
+CREATE INDEX IF NOT EXISTS idx_vehicle_type_brand ON vehicle (vehicle_type, brand);
+CREATE INDEX IF NOT EXISTS idx_vehicle_branch_status ON vehicle (branch_id, availability_status);
+CREATE INDEX IF NOT EXISTS idx_vehicle_daily_rate ON vehicle (daily_rate);
+
+CREATE TABLE IF NOT EXISTS rental (
+    rental_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    customer_id BIGINT,
+    vehicle_id BIGINT,
+    staff_id BIGINT,
+    rental_date DATE,
+    return_date DATE,
+    total_amount DOUBLE,
+    rental_status VARCHAR(20)
+);
+CREATE INDEX IF NOT EXISTS idx_rental_vehicle_dates ON rental (vehicle_id, rental_date, return_date);
+CREATE INDEX IF NOT EXISTS idx_rental_status_id ON rental (rental_status, rental_id);
+CREATE INDEX IF NOT EXISTS idx_rental_return_vehicle ON rental (return_date, rental_date, vehicle_id, rental_status);
+
+CREATE TABLE IF NOT EXISTS payment (
+    payment_id BIGINT PRIMARY KEY,
+    rental_id BIGINT UNIQUE,
+    payment_date DATE,
+    created_at TIMESTAMP,
+    payment_method VARCHAR(20),
+    amount DOUBLE,
+    payment_status VARCHAR(20),
+    transaction_id VARCHAR(255),
+    slip_file_name VARCHAR(255),
+    slip_sha256 VARCHAR(64),
+    payment_details VARCHAR(255),
+    admin_notes VARCHAR(255)
+);
+CREATE INDEX IF NOT EXISTS idx_payment_status_method_created ON payment (payment_status, payment_method, created_at);
+
+CREATE TABLE IF NOT EXISTS maintenance (
+    maintenance_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    vehicle_id BIGINT,
+    maintenance_date DATE,
+    maintenance_end_date DATE,
+    description CLOB,
+    cost DOUBLE,
+    next_service_date DATE
+);
+CREATE INDEX IF NOT EXISTS idx_maintenance_next_service ON maintenance (next_service_date, vehicle_id);
+CREATE INDEX IF NOT EXISTS idx_maintenance_vehicle_dates ON maintenance (vehicle_id, maintenance_date, maintenance_end_date);
+CREATE INDEX IF NOT EXISTS idx_maintenance_end_vehicle ON maintenance (maintenance_end_date, maintenance_date, vehicle_id);
+
+CREATE TABLE IF NOT EXISTS bank_account (
+    account_id BIGINT PRIMARY KEY,
+    bank_name VARCHAR(255),
+    branch VARCHAR(255),
+    account_number VARCHAR(255),
+    account_holder_name VARCHAR(255),
+    account_type VARCHAR(255),
+    is_active BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    idempotency_key VARCHAR(200) PRIMARY KEY,
+    request_hash CHAR(64),
+    status INT,
+    content_type VARCHAR(255),
+    body CLOB,
+    created_at TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_created ON idempotency_key (created_at);
+
+CREATE TABLE IF NOT EXISTS revenue_rollup (
+    day DATE NOT NULL,
+    branch_id BIGINT NOT NULL,
+    vehicle_type VARCHAR(50) NOT NULL,
+    revenue DOUBLE,
+    payment_count BIGINT,
+    rental_count BIGINT,
+    booked_amount DOUBLE,
+    PRIMARY KEY (day, branch_id, vehicle_type)
+);
+
+CREATE TABLE IF NOT EXISTS rental_audit (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    rental_id BIGINT,
+    action VARCHAR(50),
+    changed_by VARCHAR(100),
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_rental_audit_rental_changed ON rental_audit (rental_id, changed_at);
+CREATE INDEX IF NOT EXISTS idx_rental_audit_changed_id ON rental_audit (changed_at, id);
+
+CREATE VIEW IF NOT EXISTS rental_audit_view AS
+SELECT id, rental_id, action, changed_by, changed_at FROM rental_audit;
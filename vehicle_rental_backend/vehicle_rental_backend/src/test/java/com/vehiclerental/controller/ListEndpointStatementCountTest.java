@@ -0,0 +1,165 @@
+package com.vehiclerental.controller;
+
+import com.vehiclerental.entity.Branch;
+import com.vehiclerental.entity.Customer;
+import com.vehiclerental.entity.Maintenance;
+import com.vehiclerental.entity.Payment;
+import com.vehiclerental.entity.Rental;
+import com.vehiclerental.entity.Staff;
+import com.vehiclerental.entity.Vehicle;
+import com.vehiclerental.event.VehicleChangedEvent;
+import com.vehiclerental.repository.BranchRepository;
+import com.vehiclerental.repository.CustomerRepository;
+import com.vehiclerental.repository.MaintenanceRepository;
+import com.vehiclerental.repository.PaymentRepository;
+import com.vehiclerental.repository.RentalRepository;
+import com.vehiclerental.repository.StaffRepository;
+import com.vehiclerental.repository.VehicleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The list endpoints run with open-in-view, so anything the JSON touches that the finder did
+ * not fetch would be lazy-loaded during serialization. Each endpoint must answer with one
+ * statement however many rows and distinct branches it returns.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ListEndpointStatementCountTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private BranchRepository branchRepo;
+
+    @Autowired
+    private StaffRepository staffRepo;
+
+    @Autowired
+    private VehicleRepository vehicleRepo;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    @Autowired
+    private RentalRepository rentalRepo;
+
+    @Autowired
+    private PaymentRepository paymentRepo;
+
+    @Autowired
+    private MaintenanceRepository maintenanceRepo;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Built on the shared context (the open-in-view interceptor is part of it) rather than
+        // @AutoConfigureMockMvc, which would start a second context on the same database
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/rentals", "/api/vehicles", "/api/staff", "/api/payments",
+            "/api/maintenances", "/api/branches", "/api/customers"})
+    void listEndpointAnswersWithOneStatement(String endpoint) throws Exception {
+        createRows(2);
+        assertThat(statementsFor(endpoint)).isEqualTo(1);
+
+        createRows(20);
+        assertThat(statementsFor(endpoint)).isEqualTo(1);
+    }
+
+    private long statementsFor(String endpoint) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(endpoint)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Per row a branch with its own manager, and a separate home branch for that manager and for the
+    // rental's clerk, so a branch reached only through staff that the finder did not fetch shows up
+    // as extra statements
+    private void createRows(int count) {
+        Long lastVehicleId = null;
+        for (int i = 0; i < count; i++) {
+            Branch home = new Branch();
+            home.setBranchName("Endpoint home branch " + i);
+            home = branchRepo.save(home);
+
+            Staff manager = new Staff();
+            manager.setFullName("Endpoint manager " + i);
+            manager.setBranch(home);
+            manager = staffRepo.save(manager);
+
+            Staff clerk = new Staff();
+            clerk.setFullName("Endpoint clerk " + i);
+            clerk.setBranch(home);
+            clerk = staffRepo.save(clerk);
+
+            Branch branch = new Branch();
+            branch.setBranchName("Endpoint branch " + i);
+            branch.setManager(manager);
+            branch = branchRepo.save(branch);
+
+            Vehicle vehicle = new Vehicle();
+            vehicle.setRegistrationNo("EP-" + System.nanoTime());
+            vehicle.setDailyRate(5000.0);
+            vehicle.setBranch(branch);
+            vehicle = vehicleRepo.save(vehicle);
+            lastVehicleId = vehicle.getVehicleId();
+
+            Customer customer = new Customer();
+            customer.setFullName("Endpoint customer " + i);
+            customer = customerRepo.save(customer);
+
+            Rental rental = new Rental();
+            rental.setCustomer(customer);
+            rental.setVehicle(vehicle);
+            rental.setStaff(clerk);
+            rental.setRentalDate(LocalDate.of(2025, 1, 1).plusDays(i));
+            rental.setReturnDate(LocalDate.of(2025, 1, 3).plusDays(i));
+            rental = rentalRepo.save(rental);
+
+            Payment payment = new Payment();
+            payment.setRental(rental);
+            payment.setAmount(15000.0);
+            payment.setPaymentMethod(Payment.PaymentMethod.Cash);
+            paymentRepo.save(payment);
+
+            Maintenance maintenance = new Maintenance();
+            maintenance.setVehicle(vehicle);
+            maintenance.setMaintenanceDate(LocalDate.of(2025, 2, 1).plusDays(i));
+            maintenance.setMaintenanceEndDate(LocalDate.of(2025, 2, 1).plusDays(i));
+            maintenanceRepo.save(maintenance);
+        }
+        // Rows went in through the repositories, so evict the vehicle catalog cache by hand
+        events.publishEvent(VehicleChangedEvent.of(lastVehicleId));
+    }
+}
@@ -0,0 +1,122 @@
+package com.vehiclerental.repository;
+
+import com.vehiclerental.entity.Branch;
+import com.vehiclerental.entity.Customer;
+import com.vehiclerental.entity.Rental;
+import com.vehiclerental.entity.Staff;
+import com.vehiclerental.entity.Vehicle;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The list finders load their rows and every association the API serializes
+ * (branches and branch managers included) in one statement, however many rows
+ * and distinct branches there are.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FetchPlanStatementCountTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private RentalRepository rentalRepo;
+
+    @Autowired
+    private VehicleRepository vehicleRepo;
+
+    @Autowired
+    private StaffRepository staffRepo;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 20})
+    void rentalsWithDetailsLoadInOneStatement(int count) {
+        createRentals(count);
+
+        List<Rental> rentals = rentalRepo.findAllWithDetails();
+        for (Rental r : rentals) {
+            r.getCustomer().getFullName();
+            r.getVehicle().getBranch().getManager().getFullName();
+            r.getStaff().getBranch().getManager().getFullName();
+        }
+
+        assertThat(rentals).hasSize(count);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 20})
+    void vehiclesAndStaffWithBranchesLoadInOneStatementEach(int count) {
+        createRentals(count);
+
+        List<Vehicle> vehicles = vehicleRepo.findAll();
+        vehicles.forEach(v -> v.getBranch().getManager().getFullName());
+        assertThat(vehicles).hasSize(count);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        List<Staff> staff = staffRepo.findAll();
+        staff.forEach(s -> s.getBranch().getManager().getFullName());
+        assertThat(staff).hasSize(count);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // One branch per rental, each with its own manager, so per-branch lazy loads would show up as extra statements
+    private void createRentals(int count) {
+        for (int i = 0; i < count; i++) {
+            Branch branch = new Branch();
+            branch.setBranchName("Branch " + i);
+            em.persist(branch);
+
+            Staff manager = new Staff();
+            manager.setFullName("Manager " + i);
+            manager.setBranch(branch);
+            em.persist(manager);
+            branch.setManager(manager);
+
+            Vehicle vehicle = new Vehicle();
+            vehicle.setRegistrationNo("FP-" + count + "-" + i);
+            vehicle.setDailyRate(5000.0);
+            vehicle.setBranch(branch);
+            em.persist(vehicle);
+
+            Customer customer = new Customer();
+            customer.setFullName("Customer " + i);
+            em.persist(customer);
+
+            Rental rental = new Rental();
+            rental.setCustomer(customer);
+            rental.setVehicle(vehicle);
+            rental.setStaff(manager);
+            rental.setRentalDate(LocalDate.of(2025, 1, 1).plusDays(i));
+            rental.setReturnDate(LocalDate.of(2025, 1, 3).plusDays(i));
+            em.persist(rental);
+        }
+        em.flush();
+        em.clear();
+        statistics.clear();
+    }
+}
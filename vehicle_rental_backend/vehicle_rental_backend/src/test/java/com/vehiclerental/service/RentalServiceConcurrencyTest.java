@@ -0,0 +1,147 @@
+package com.vehiclerental.service;
+
+import com.vehiclerental.entity.Branch;
+import com.vehiclerental.entity.Customer;
+import com.vehiclerental.entity.Rental;
+import com.vehiclerental.entity.Staff;
+import com.vehiclerental.entity.Vehicle;
+import com.vehiclerental.repository.BranchRepository;
+import com.vehiclerental.repository.CustomerRepository;
+import com.vehiclerental.repository.RentalRepository;
+import com.vehiclerental.repository.StaffRepository;
+import com.vehiclerental.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A few hundred simultaneous bookings of one vehicle for the same dates: the vehicle row
+ * lock serializes them, so exactly one passes the overlap check and every other one is
+ * rejected as a conflict (IllegalStateException, 409) rather than timing out on the lock.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RentalServiceConcurrencyTest {
+    private static final int BOOKINGS = 300;
+    // More workers than the connection pool, so some bookings also wait for a connection
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private RentalRepository rentalRepo;
+
+    @Autowired
+    private VehicleRepository vehicleRepo;
+
+    @Autowired
+    private BranchRepository branchRepo;
+
+    @Autowired
+    private StaffRepository staffRepo;
+
+    @Autowired
+    private CustomerRepository customerRepo;
+
+    private Vehicle vehicle;
+    private Staff staff;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        Branch branch = new Branch();
+        branch.setBranchName("Concurrency branch");
+        branch = branchRepo.save(branch);
+
+        staff = new Staff();
+        staff.setFullName("Concurrency staff");
+        staff.setBranch(branch);
+        staff = staffRepo.save(staff);
+
+        vehicle = new Vehicle();
+        vehicle.setRegistrationNo("CC-" + System.nanoTime());
+        vehicle.setDailyRate(5000.0);
+        vehicle.setBranch(branch);
+        vehicle = vehicleRepo.save(vehicle);
+
+        customer = new Customer();
+        customer.setFullName("Concurrency customer");
+        customer = customerRepo.save(customer);
+    }
+
+    @Test
+    void exactlyOneOfManySimultaneousBookingsSucceeds() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(10);
+        LocalDate to = from.plusDays(3);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Throwable>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < BOOKINGS; i++) {
+                results.add(pool.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    try {
+                        rentalService.createRental(booking(from, to));
+                        return null;
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+            start.countDown();
+
+            int succeeded = 0;
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Throwable> result : results) {
+                Throwable failure = result.get(60, TimeUnit.SECONDS);
+                if (failure == null) {
+                    succeeded++;
+                } else {
+                    failures.add(failure);
+                }
+            }
+            assertThat(succeeded).isEqualTo(1);
+            assertThat(failures).hasSize(BOOKINGS - 1)
+                    .allSatisfy(e -> assertThat(e).isExactlyInstanceOf(IllegalStateException.class));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(rentalRepo.findBlockedIntervals(List.of(vehicle.getVehicleId()), from, to)).hasSize(1);
+    }
+
+    private Rental booking(LocalDate from, LocalDate to) {
+        Vehicle v = new Vehicle();
+        v.setVehicleId(vehicle.getVehicleId());
+        Staff s = new Staff();
+        s.setStaffId(staff.getStaffId());
+        Customer c = new Customer();
+        c.setCustomerId(customer.getCustomerId());
+
+        Rental rental = new Rental();
+        rental.setVehicle(v);
+        rental.setStaff(s);
+        rental.setCustomer(c);
+        rental.setRentalDate(from);
+        rental.setReturnDate(to);
+        return rental;
+    }
+}
@@ -0,0 +1,90 @@
+package com.vehiclerental.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehiclerental.entity.Branch;
+import com.vehiclerental.entity.Staff;
+import com.vehiclerental.entity.Vehicle;
+import com.vehiclerental.repository.BranchRepository;
+import com.vehiclerental.repository.StaffRepository;
+import com.vehiclerental.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cached vehicles are detached, so a cache hit must serialize without touching anything
+ * lazy, and a branch write must not leave the old branch in the cache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class VehicleServiceCacheTest {
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private BranchService branchService;
+
+    @Autowired
+    private BranchRepository branchRepo;
+
+    @Autowired
+    private StaffRepository staffRepo;
+
+    @Autowired
+    private VehicleRepository vehicleRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Branch branch;
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void setUp() {
+        Branch home = new Branch();
+        home.setBranchName("Manager home branch");
+        home = branchRepo.save(home);
+
+        Staff manager = new Staff();
+        manager.setFullName("Cache manager");
+        manager.setBranch(home);
+        manager = staffRepo.save(manager);
+
+        branch = new Branch();
+        branch.setBranchName("Cache branch");
+        branch.setManager(manager);
+        branch = branchRepo.save(branch);
+
+        vehicle = new Vehicle();
+        vehicle.setRegistrationNo("VC-" + System.nanoTime());
+        vehicle.setDailyRate(4000.0);
+        vehicle.setBranch(branch);
+        vehicle = vehicleRepo.save(vehicle);
+    }
+
+    @Test
+    void cachedVehicleSerializesOutsideTheSession() throws Exception {
+        vehicleService.getVehicleById(vehicle.getVehicleId());
+        Vehicle cached = vehicleService.getVehicleById(vehicle.getVehicleId());
+
+        String json = objectMapper.writeValueAsString(cached);
+        assertThat(json).contains("Cache branch").contains("Cache manager").doesNotContain("Manager home branch");
+    }
+
+    @Test
+    void branchRenameEvictsCachedVehicles() {
+        vehicleService.getVehicleById(vehicle.getVehicleId());
+
+        Branch renamed = new Branch();
+        renamed.setBranchName("Renamed branch");
+        branchService.updateBranch(branch.getBranchId(), renamed);
+
+        assertThat(vehicleService.getVehicleById(vehicle.getVehicleId()).getBranch().getBranchName())
+                .isEqualTo("Renamed branch");
+    }
+}